@@ -0,0 +1,116 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Контекст сервера на H2 (профиль test) с набором данных заданного размера: size бронирований,
+ * size / 100 пользователей и вдвое больше вещей. Бронирования равномерно распределены на два месяца
+ * до и после текущего момента и по всем статусам, поэтому каждая выборка по состоянию непустая.
+ * Пользователь с наименьшим id — и владелец, и бронирующий, от его имени выполняются выборки.
+ */
+@State(Scope.Benchmark)
+public class BookingDataset {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final Status[] STATUSES = Status.values();
+
+    @Param({"10000"})
+    public int size;
+
+    public ConfigurableApplicationContext context;
+    public long userId;
+    public long bookingId;
+    public long itemId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("logging.level.root=WARN")
+                .run();
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+
+        int users = Math.max(size / 100, 2);
+        int items = users * 2;
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> userRows = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            userRows.add(new Object[]{"user" + i, "user" + i + "@bench.ru"});
+        }
+        jdbc.batchUpdate("INSERT INTO users (name, email) VALUES (?, ?)", userRows, BATCH_SIZE,
+                (ps, row) -> {
+                    ps.setString(1, (String) row[0]);
+                    ps.setString(2, (String) row[1]);
+                });
+        userId = jdbc.queryForObject("SELECT MIN(id) FROM users", Long.class);
+
+        List<Object[]> itemRows = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            itemRows.add(new Object[]{"item" + i, "description " + i, userId + i % users});
+        }
+        jdbc.batchUpdate("INSERT INTO items (name, description, available, owner) VALUES (?, ?, true, ?)",
+                itemRows, BATCH_SIZE,
+                (ps, row) -> {
+                    ps.setString(1, (String) row[0]);
+                    ps.setString(2, (String) row[1]);
+                    ps.setLong(3, (Long) row[2]);
+                });
+        long firstItemId = jdbc.queryForObject("SELECT MIN(id) FROM items", Long.class);
+
+        List<Object[]> bookingRows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int item = random.nextInt(items);
+            long owner = userId + item % users;
+            // Половина бронирований — у пользователя userId как бронирующего, остальные — у прочих
+            long booker = i % 2 == 0 && owner != userId ? userId : userId + (owner - userId + 1) % users;
+            LocalDateTime start = now.plusHours(random.nextInt(24 * 120) - 24 * 60);
+            bookingRows.add(new Object[]{
+                    Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plusHours(1 + random.nextInt(24 * 5))),
+                    STATUSES[random.nextInt(STATUSES.length)].name(),
+                    booker,
+                    firstItemId + item
+            });
+        }
+        jdbc.batchUpdate("INSERT INTO bookings (start_date, end_date, status, booker_id, item_id, version) "
+                        + "VALUES (?, ?, ?, ?, ?, 0)", bookingRows, BATCH_SIZE,
+                (ps, row) -> {
+                    ps.setTimestamp(1, (Timestamp) row[0]);
+                    ps.setTimestamp(2, (Timestamp) row[1]);
+                    ps.setString(3, (String) row[2]);
+                    ps.setLong(4, (Long) row[3]);
+                    ps.setLong(5, (Long) row[4]);
+                });
+        bookingId = jdbc.queryForObject("SELECT MIN(id) FROM bookings", Long.class);
+        itemId = firstItemId;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
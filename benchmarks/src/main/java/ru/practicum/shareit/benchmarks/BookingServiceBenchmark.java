@@ -0,0 +1,49 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полный вызов первой страницы бронирований владельца, как его делает GET /bookings/owner: проверка пользователя,
+ * разбор состояния и курсора, выборка страницы и преобразование в DTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingServiceBenchmark {
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "APPROVED", "REJECTED", "CANCELED"})
+    public String state;
+
+    private BookingService bookingService;
+    private long ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp(BookingDataset dataset) {
+        bookingService = dataset.bean(BookingService.class);
+        ownerId = dataset.userId;
+    }
+
+    @Benchmark
+    public BookingPageDto getBookingsOwner() {
+        return bookingService.getBookingsOwner(state, ownerId, null, BookingServiceImpl.DEFAULT_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор параметра state из запроса: известные значения в разном регистре и неизвестное,
+ * для которого стоимость определяется созданием исключения.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingStateBenchmark {
+
+    @Param({"ALL", "current", "Waiting", "UNSUPPORTED"})
+    public String state;
+
+    @Benchmark
+    public Object from() {
+        try {
+            return BookingState.from(state);
+        } catch (ValidationException e) {
+            return e;
+        }
+    }
+}
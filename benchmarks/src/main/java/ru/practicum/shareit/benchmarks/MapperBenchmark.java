@@ -0,0 +1,93 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRow;
+import ru.practicum.shareit.booking.dto.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingQuery;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование загруженных сущностей в DTO. Варианты без готового списка отзывов включают
+ * запрос отзывов вещи — так мапперы вызываются из сервисов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private BookingMapper bookingMapper;
+    private ItemMapper itemMapper;
+    private Booking booking;
+    private BookingRow bookingRow;
+    private Item item;
+
+    @Setup(Level.Trial)
+    public void setUp(BookingDataset dataset) {
+        bookingMapper = dataset.bean(BookingMapper.class);
+        itemMapper = dataset.bean(ItemMapper.class);
+        booking = dataset.bean(BookingRepository.class).findById(dataset.bookingId).orElseThrow();
+        bookingRow = dataset.bean(BookingRepository.class).find(BookingQuery.builder()
+                .role(BookingQuery.Role.BOOKER)
+                .userId(dataset.userId)
+                .now(LocalDateTime.now())
+                .limit(1)
+                .build()).get(0);
+        // Владелец из кэша второго уровня дочитывается только внутри транзакции
+        item = new TransactionTemplate(dataset.bean(PlatformTransactionManager.class)).execute(status -> {
+            Item loaded = dataset.bean(ItemRepository.class).findById(dataset.itemId).orElseThrow();
+            loaded.getOwner().getName();
+            return loaded;
+        });
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return bookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public BookingDto bookingToDtoWithComments() {
+        return bookingMapper.toBookingDto(booking, List.<CommentDto>of());
+    }
+
+    @Benchmark
+    public BookingDto bookingRowToDto() {
+        return bookingMapper.toBookingDto(bookingRow);
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return itemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public ItemDto itemToDtoWithComments() {
+        return itemMapper.toItemDto(item, List.<CommentDto>of());
+    }
+}
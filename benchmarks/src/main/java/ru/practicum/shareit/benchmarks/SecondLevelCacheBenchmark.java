@@ -0,0 +1,94 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.cache.ItemCardCache;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Чтение пользователя и карточки вещи через сервисы с кэшем второго уровня Hibernate и без него.
+ * Кэши сервисов (users и карточки вещей) сбрасываются перед каждым вызовом, иначе они скрыли бы разницу:
+ * замеряется путь промаха, который и идет в Hibernate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+
+    @Param({"true", "false"})
+    public boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private ItemService itemService;
+    private Cache usersCache;
+    private ItemCardCache itemCardCache;
+    private long userId;
+    private long itemId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("logging.level.root=WARN",
+                        "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache)
+                .run();
+        User owner = context.getBean(UserRepository.class).save(new User(null, "owner", "owner@bench.ru"));
+        Item item = context.getBean(ItemRepository.class).save(new Item(null, "item", "desc", true, owner, null));
+        userId = owner.getId();
+        itemId = item.getId();
+
+        userService = context.getBean(UserService.class);
+        itemService = context.getBean(ItemService.class);
+        usersCache = context.getBean(CacheManager.class).getCache(UserServiceImpl.USERS_CACHE);
+        itemCardCache = context.getBean(ItemCardCache.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDto getUserById() {
+        usersCache.evict(userId);
+        return userService.getUserById(userId);
+    }
+
+    @Benchmark
+    public ItemDto getItemById() {
+        itemCardCache.invalidate(itemId);
+        return itemService.getItemById(itemId);
+    }
+}
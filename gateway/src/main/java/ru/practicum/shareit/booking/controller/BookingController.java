@@ -1,7 +1,5 @@
 package ru.practicum.shareit.booking.controller;
 
-import java.util.Map;
-
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -16,14 +14,15 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Positive;
-import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ru.practicum.shareit.booking.client.BookingClient;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookUpdateRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.exception.ValidationException;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -31,17 +30,21 @@ import ru.practicum.shareit.booking.dto.BookingState;
 @Slf4j
 @Validated
 public class BookingController {
+	private static final long MAX_PAGE_SIZE = 100;
+
 	private final BookingClient bookingClient;
 
 	@GetMapping
 	public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
 											  @RequestParam(name = "state", defaultValue = "all") String stateParam,
-											  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-											  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+											  @RequestParam(name = "cursor", required = false) String cursor,
+											  @Positive @Max(MAX_PAGE_SIZE) @RequestParam(name = "size", defaultValue = "10") Integer size,
+											  @RequestParam(name = "from", required = false) String from) {
+		rejectOffsetPaging(from);
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-		log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-		return bookingClient.getBookings(userId, state, from, size);
+		log.info("Get booking with state {}, userId={}, cursor={}, size={}", stateParam, userId, cursor, size);
+		return bookingClient.getBookings(userId, state, cursor, size);
 	}
 
 	@PostMapping
@@ -71,11 +74,24 @@ public class BookingController {
 
 	@GetMapping("/owner")
 	public ResponseEntity<Object> getBookingsOwner(
-			@RequestParam(name = "state", defaultValue = "ALL") String state,
+			@RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@Positive @Max(MAX_PAGE_SIZE) @RequestParam(name = "size", defaultValue = "10") Integer size,
+			@RequestParam(name = "from", required = false) String from,
 			@Valid @RequestHeader("X-Sharer-User-Id") Long userId) {
+		rejectOffsetPaging(from);
+		BookingState state = BookingState.from(stateParam)
+				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
 		log.info("Получен GET-запрос к эндпоинту: '/bookings/owner' на получение " +
-				"списка всех бронирований вещей пользователя с ID={} с параметром STATE={}", userId, state);
-		return bookingClient.getBookingsOwner(userId, Map.of("state", state));
+				"списка всех бронирований вещей пользователя с ID={} с параметром STATE={}", userId, stateParam);
+		return bookingClient.getBookingsOwner(userId, state, cursor, size);
 	}
 
+	// Списки бронирований листаются курсором; молча игнорировать from нельзя — клиент получал бы первую страницу
+	private static void rejectOffsetPaging(String from) {
+		if (from != null) {
+			throw new ValidationException("Параметр from больше не поддерживается: передайте cursor " +
+					"из заголовка X-Next-Cursor предыдущей страницы");
+		}
+	}
 }
@@ -8,7 +8,9 @@ public enum BookingState {
 	FUTURE,
 	PAST,
 	REJECTED,
-	WAITING;
+	WAITING,
+	APPROVED,
+	CANCELED;
 
 	public static Optional<BookingState> from(String stringState) {
 		for (BookingState state : values()) {
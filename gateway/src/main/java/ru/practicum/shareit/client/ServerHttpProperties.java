@@ -0,0 +1,62 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Пул HTTP-соединений шлюза с сервером (shareit-server.http.*), общий для всех клиентов.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class ServerHttpProperties {
+
+    /**
+     * Максимум открытых соединений с сервером.
+     */
+    private int maxConnections = 200;
+
+    /**
+     * Максимум соединений на один адрес сервера. Шлюз ходит на один адрес, поэтому по умолчанию равен общему.
+     */
+    private int maxConnectionsPerRoute = 200;
+
+    /**
+     * Ожидание установки TCP-соединения.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Ожидание ответа сервера после отправки запроса.
+     */
+    private Duration responseTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Ожидание свободного соединения, когда все соединения пула заняты.
+     */
+    private Duration poolTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Сколько держать соединение открытым между запросами, если сервер не прислал заголовок Keep-Alive.
+     * Должно быть меньше server.tomcat.keep-alive-timeout сервера, иначе шлюз возьмет уже закрытое соединение.
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /**
+     * Фоновое закрытие соединений, простаивающих дольше этого времени.
+     */
+    private Duration idleEviction = Duration.ofSeconds(30);
+
+    /**
+     * Соединение, простоявшее дольше этого времени, проверяется перед повторным использованием.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /**
+     * Предельный срок жизни соединения: после него соединение не переиспользуется, даже если живо.
+     */
+    private Duration timeToLive = Duration.ofMinutes(10);
+}
@@ -1,17 +1,28 @@
 package ru.practicum.shareit.item.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+
 @Slf4j
+@Validated
 @RestController
 @RequestMapping("/items")
 public class ItemController {
+    private static final long MAX_PAGE_SIZE = 100;
+
     private final ItemClient itemClient;
 
     private static final String owner = "X-Sharer-User-Id";
@@ -27,11 +38,35 @@ public class ItemController {
         return itemClient.addItem(userId, itemDto);
     }
 
+    @GetMapping
+    public ResponseEntity<Object> getItemsByOwner(@RequestHeader(owner) Long userId) {
+        return itemClient.getItemsByOwner(userId);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Object> getItemsBySearchQuery(@RequestParam String text,
+                                                        @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                        @Positive @Max(MAX_PAGE_SIZE)
+                                                        @RequestParam(defaultValue = "10") Integer size) {
+        return itemClient.getItemsBySearchQuery(text, from, size);
+    }
+
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getItemById(@Valid @PathVariable Long itemId) {
         return itemClient.getItemById(itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new ValidationException("Начало периода должно быть раньше конца");
+        }
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
     @ResponseBody
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> addComment(@RequestHeader(owner) Long userId,
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.tracing;
+
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Экспорт спанов OpenTelemetry. При shareit.tracing.exporter=logging каждый завершенный спан пишется
+ * в журнал (логгер io.opentelemetry.exporter.logging.LoggingSpanExporter) с traceId, spanId и длительностью,
+ * при none спаны только связывают записи журнала по traceId и spanId.
+ */
+@Configuration
+public class TracingConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.tracing.exporter", havingValue = "logging")
+    public SpanExporter loggingSpanExporter() {
+        return LoggingSpanExporter.create();
+    }
+}
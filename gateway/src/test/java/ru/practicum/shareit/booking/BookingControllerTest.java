@@ -15,10 +15,11 @@ import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookUpdateRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
-import java.util.Map;
 
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -37,7 +38,7 @@ public class BookingControllerTest {
 
     @Test
     void getBookings() throws Exception {
-        when(bookingClient.getBookings(1, BookingState.ALL, 0, 10))
+        when(bookingClient.getBookings(1, BookingState.ALL, null, 10))
                 .thenReturn(new ResponseEntity<>(HttpStatus.OK));
 
         mockMvc.perform(get("/bookings")
@@ -83,14 +84,45 @@ public class BookingControllerTest {
 
     @Test
     void getBookingsOwner() throws Exception {
-        when(bookingClient.getBookingsOwner(
-                1,
-                Map.of("state", BookingState.ALL)
-        )).thenReturn(new ResponseEntity<>(HttpStatus.OK));
+        when(bookingClient.getBookingsOwner(1, BookingState.ALL, null, 10))
+                .thenReturn(new ResponseEntity<>(HttpStatus.OK));
 
         mockMvc.perform(get("/bookings/owner")
                 .header(USER_ID, 1)
                 .param("state", "ALL")
         ).andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBookingsPassesNextCursorThrough() throws Exception {
+        when(bookingClient.getBookings(1, BookingState.ALL, "abc", 5))
+                .thenReturn(ResponseEntity.ok().header("X-Next-Cursor", "def").build());
+
+        mockMvc.perform(get("/bookings")
+                .header(USER_ID, 1)
+                .param("cursor", "abc")
+                .param("size", "5")
+        ).andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "def"));
+    }
+
+    @Test
+    void getBookingsRejectsOffsetPaging() throws Exception {
+        mockMvc.perform(get("/bookings")
+                .header(USER_ID, 1)
+                .param("from", "10")
+        ).andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingClient);
+    }
+
+    @Test
+    void getBookingsOwnerRejectsOffsetPaging() throws Exception {
+        mockMvc.perform(get("/bookings/owner")
+                .header(USER_ID, 1)
+                .param("from", "0")
+        ).andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingClient);
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.client.ItemClient;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class BaseClientTracingTest {
+
+    private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+    private static final String CALLER_SPAN_ID = "b7ad6b7169203331";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ItemClient itemClient;
+
+    @Test
+    void serverRequestContinuesGatewayTrace() throws Exception {
+        MockRestServiceServer server = MockRestServiceServer.bindTo(itemClient.rest).build();
+        // Запрос к серверу — дочерний спан запроса к шлюзу в той же трассе
+        server.expect(requestTo("http://localhost:9090/items/1"))
+                .andExpect(header("traceparent", matchesPattern("00-" + TRACE_ID + "-(?!" + CALLER_SPAN_ID
+                        + ")[0-9a-f]{16}-01")))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        mockMvc.perform(get("/items/1")
+                        .header("traceparent", "00-" + TRACE_ID + "-" + CALLER_SPAN_ID + "-01"))
+                .andExpect(status().isOk());
+
+        server.verify();
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.booking.client.BookingClient;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.item.client.ItemClient;
+import ru.practicum.shareit.itemrequest.client.ItemRequestClient;
+import ru.practicum.shareit.user.client.UserClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "shareit-server.http.max-connections=50",
+        "shareit-server.http.max-connections-per-route=20"
+})
+class ServerHttpClientConfigurationTest {
+
+    private static final Set<Integer> CLIENT_PORTS = ConcurrentHashMap.newKeySet();
+    private static final HttpServer SERVER = startServer();
+
+    @Autowired
+    private ItemClient itemClient;
+
+    @Autowired
+    private UserClient userClient;
+
+    @Autowired
+    private BookingClient bookingClient;
+
+    @Autowired
+    private ItemRequestClient itemRequestClient;
+
+    @Autowired
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        CLIENT_PORTS.clear();
+    }
+
+    @Test
+    void clientsReuseOnePooledConnection() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(itemClient.getItemById(1L).getStatusCode().is2xxSuccessful()).isTrue();
+            assertThat(userClient.getUserById(1L).getStatusCode().is2xxSuccessful()).isTrue();
+            assertThat(bookingClient.getBooking(1L, 1L).getStatusCode().is2xxSuccessful()).isTrue();
+            assertThat(bookingClient.getBookings(1L, BookingState.ALL, null, 10).getStatusCode().is2xxSuccessful())
+                    .isTrue();
+            assertThat(itemRequestClient.getUserRequests(1L).getStatusCode().is2xxSuccessful()).isTrue();
+        }
+
+        // Все запросы всех клиентов прошли по одному соединению
+        assertThat(CLIENT_PORTS).hasSize(1);
+        assertThat(connectionManager.getTotalStats().getAvailable()).isEqualTo(1);
+    }
+
+    @Test
+    void poolIsConfiguredFromPropertiesAndMeasured() {
+        assertThat(connectionManager.getMaxTotal()).isEqualTo(50);
+        assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(20);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "shareit-server")
+                .gauge().value()).isEqualTo(50);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.route.max.default")
+                .tag("httpclient", "shareit-server")
+                .gauge().value()).isEqualTo(20);
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                CLIENT_PORTS.add(exchange.getRemoteAddress().getPort());
+                byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -14,6 +14,8 @@ import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -59,6 +61,40 @@ public class ItemControllerTest {
         ).andExpect(status().isOk());
     }
 
+    @Test
+    void getItemsByOwner() throws Exception {
+        when(itemClient.getItemsByOwner(1L)).thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        mockMvc.perform(get("/items")
+                .header(USER_ID, 1)
+        ).andExpect(status().isOk());
+    }
+
+    @Test
+    void getItemsBySearchQuery() throws Exception {
+        when(itemClient.getItemsBySearchQuery("дрель", 0, 10)).thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        mockMvc.perform(get("/items/search")
+                .param("text", "дрель")
+        ).andExpect(status().isOk());
+    }
+
+    @Test
+    void getItemsBySearchQuery_shouldRejectNonPositiveSize() throws Exception {
+        mockMvc.perform(get("/items/search")
+                .param("text", "дрель")
+                .param("size", "0")
+        ).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getItemsBySearchQuery_shouldRejectSizeAboveMaximum() throws Exception {
+        mockMvc.perform(get("/items/search")
+                .param("text", "дрель")
+                .param("size", "101")
+        ).andExpect(status().isBadRequest());
+    }
+
     @Test
     void addComment() throws Exception {
         when(itemClient.addComment(1L, 1L, new CommentDto())).thenReturn(new ResponseEntity<>(HttpStatus.OK));
@@ -69,4 +105,24 @@ public class ItemControllerTest {
                 .content(mapper.writeValueAsString(new CommentDto()))
         ).andExpect(status().isOk());
     }
+
+    @Test
+    void getAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.parse("2030-01-01T10:00:00");
+        LocalDateTime to = LocalDateTime.parse("2030-01-31T10:00:00");
+        when(itemClient.getAvailability(1L, from, to)).thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        mockMvc.perform(get("/items/1/availability")
+                .param("from", "2030-01-01T10:00:00")
+                .param("to", "2030-01-31T10:00:00")
+        ).andExpect(status().isOk());
+    }
+
+    @Test
+    void getAvailabilityRejectsReversedPeriod() throws Exception {
+        mockMvc.perform(get("/items/1/availability")
+                .param("from", "2030-01-31T10:00:00")
+                .param("to", "2030-01-01T10:00:00")
+        ).andExpect(status().isBadRequest());
+    }
 }
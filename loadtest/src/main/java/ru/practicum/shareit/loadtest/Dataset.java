@@ -0,0 +1,80 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Идентификаторы сгенерированных данных, из которых сценарии выбирают пользователей, вещи и пары
+ * «бронировавший — вещь» для отзывов.
+ */
+@Getter
+public class Dataset {
+
+    static final String[] WORDS = {
+            "дрель", "перфоратор", "лестница", "палатка", "велосипед", "самокат", "шуруповерт", "пила",
+            "проектор", "гитара", "байдарка", "спальник", "мангал", "генератор", "компрессор", "камера",
+            "штатив", "коньки", "лыжи", "сноуборд"
+    };
+
+    private final long firstUserId;
+    private final int users;
+    private final long firstItemId;
+    private final long[] itemOwners;
+    private final boolean[] itemAvailable;
+    private final List<long[]> commentable = new ArrayList<>();
+
+    Dataset(long firstUserId, int users, long firstItemId, int items) {
+        this.firstUserId = firstUserId;
+        this.users = users;
+        this.firstItemId = firstItemId;
+        this.itemOwners = new long[items];
+        this.itemAvailable = new boolean[items];
+    }
+
+    public long randomUser(Random random) {
+        return firstUserId + random.nextInt(users);
+    }
+
+    public int randomItemIndex(Random random) {
+        return random.nextInt(itemOwners.length);
+    }
+
+    public long itemId(int index) {
+        return firstItemId + index;
+    }
+
+    public long ownerOf(int index) {
+        return itemOwners[index];
+    }
+
+    public boolean isAvailable(int index) {
+        return itemAvailable[index];
+    }
+
+    /**
+     * Пользователь, кроме указанного: бронирующий не может быть владельцем вещи.
+     */
+    public long randomUserExcept(Random random, long userId) {
+        long candidate = randomUser(random);
+        return candidate != userId ? candidate : firstUserId + (candidate - firstUserId + 1) % users;
+    }
+
+    /**
+     * Пара {bookerId, itemId} завершенного подтвержденного бронирования — такой пользователь может оставить отзыв.
+     */
+    public long[] randomCommentable(Random random) {
+        return commentable.isEmpty() ? null : commentable.get(random.nextInt(commentable.size()));
+    }
+
+    void itemCreated(int index, long ownerId, boolean available) {
+        itemOwners[index] = ownerId;
+        itemAvailable[index] = available;
+    }
+
+    void bookingFinished(long bookerId, long itemId) {
+        commentable.add(new long[]{bookerId, itemId});
+    }
+}
@@ -0,0 +1,185 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+
+/**
+ * Генератор данных прямо в таблицы схемы сервера. Идентификаторы продолжают уже существующие,
+ * поэтому генерация не затирает данные и может повторяться; после вставки счетчики identity
+ * сдвигаются за сгенерированные строки.
+ * <p>
+ * Владение вещами неравномерное (см. owner-skew). Бронирования каждой вещи не пересекаются и разложены
+ * по окну от 90 дней назад до 30 дней вперед: есть прошедшие, текущие и будущие. Отзывы оставляют
+ * бронировавшие по завершенным подтвержденным бронированиям — как требует сервер.
+ */
+@Slf4j
+public class DatasetGenerator {
+
+    private static final Duration PAST = Duration.ofDays(90);
+    private static final Duration FUTURE = Duration.ofDays(30);
+    private static final String[] ADJECTIVES = {
+            "новая", "мощная", "компактная", "профессиональная", "легкая", "складная", "детская", "туристическая"
+    };
+
+    private final LoadTestSettings settings;
+    private final Random random = new Random(42);
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    public DatasetGenerator(LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    public Dataset generate() throws SQLException {
+        long started = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(settings.getDbUrl(), settings.getDbUser(),
+                settings.getDbPassword())) {
+            connection.setAutoCommit(false);
+
+            long firstUser = nextId(connection, "users");
+            long firstRequest = nextId(connection, "requests");
+            long firstItem = nextId(connection, "items");
+            long firstBooking = nextId(connection, "bookings");
+            long firstComment = nextId(connection, "comments");
+            Dataset dataset = new Dataset(firstUser, settings.getUsers(), firstItem, settings.getItems());
+
+            insertUsers(connection, firstUser);
+            insertRequests(connection, firstRequest, dataset);
+            insertItems(connection, firstItem, firstRequest, dataset);
+            insertBookings(connection, firstBooking, dataset);
+            insertComments(connection, firstComment, dataset);
+
+            restartIdentity(connection, "users", firstUser + settings.getUsers());
+            restartIdentity(connection, "requests", firstRequest + settings.getRequests());
+            restartIdentity(connection, "items", firstItem + settings.getItems());
+            restartIdentity(connection, "bookings", firstBooking + settings.getBookings());
+            restartIdentity(connection, "comments", firstComment + settings.getComments());
+            connection.commit();
+
+            log.info("Сгенерировано пользователей: {}, запросов: {}, вещей: {}, бронирований: {}, отзывов: {} за {} мс",
+                    settings.getUsers(), settings.getRequests(), settings.getItems(), settings.getBookings(),
+                    settings.getComments(), (System.nanoTime() - started) / 1_000_000);
+            return dataset;
+        }
+    }
+
+    private void insertUsers(Connection connection, long firstId) throws SQLException {
+        // Уникальность email не зависит от уже существующих пользователей: в адресе есть id
+        try (TableWriter users = TableWriter.open(connection, "users", "id", "name", "email")) {
+            for (int i = 0; i < settings.getUsers(); i++) {
+                long id = firstId + i;
+                users.row(id, "Пользователь " + id, "user" + id + "@load.test");
+            }
+        }
+    }
+
+    private void insertRequests(Connection connection, long firstId, Dataset dataset) throws SQLException {
+        try (TableWriter requests = TableWriter.open(connection, "requests",
+                "id", "description", "requestor_id", "created")) {
+            for (int i = 0; i < settings.getRequests(); i++) {
+                requests.row(firstId + i, "Нужна " + word(), dataset.randomUser(random),
+                        now.minusMinutes(random.nextLong(PAST.toMinutes())));
+            }
+        }
+    }
+
+    private void insertItems(Connection connection, long firstId, long firstRequest, Dataset dataset)
+            throws SQLException {
+        try (TableWriter items = TableWriter.open(connection, "items",
+                "id", "name", "description", "available", "owner", "request_id")) {
+            for (int i = 0; i < settings.getItems(); i++) {
+                String name = word();
+                long owner = dataset.getFirstUserId()
+                        + (long) (settings.getUsers() * Math.pow(random.nextDouble(), settings.getOwnerSkew()));
+                boolean available = random.nextInt(10) != 0;
+                Long requestId = settings.getRequests() > 0 && random.nextInt(10) == 0
+                        ? firstRequest + random.nextInt(settings.getRequests()) : null;
+                items.row(firstId + i, name, ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + name + ", "
+                        + word(), available, owner, requestId);
+                dataset.itemCreated(i, owner, available);
+            }
+        }
+    }
+
+    private void insertBookings(Connection connection, long firstId, Dataset dataset) throws SQLException {
+        int items = settings.getItems();
+        int[] perItem = new int[items];
+        for (int i = 0; i < settings.getBookings(); i++) {
+            perItem[random.nextInt(items)]++;
+        }
+
+        LocalDateTime windowStart = now.minus(PAST);
+        long windowMinutes = PAST.plus(FUTURE).toMinutes();
+        long id = firstId;
+        try (TableWriter bookings = TableWriter.open(connection, "bookings",
+                "id", "start_date", "end_date", "item_id", "booker_id", "status", "version")) {
+            for (int item = 0; item < items; item++) {
+                if (perItem[item] == 0) {
+                    continue;
+                }
+                // Окно делится на равные слоты, бронирование занимает не больше половины своего слота
+                long slot = windowMinutes / perItem[item];
+                for (int j = 0; j < perItem[item]; j++) {
+                    LocalDateTime start = windowStart.plusMinutes(j * slot + random.nextLong(Math.max(slot / 2, 1)));
+                    LocalDateTime end = start.plusMinutes(1 + random.nextLong(Math.max(slot / 2, 1)));
+                    long booker = dataset.randomUserExcept(random, dataset.ownerOf(item));
+                    String status = status(start, end);
+                    bookings.row(id++, start, end, dataset.itemId(item), booker, status, 0L);
+                    if ("APPROVED".equals(status) && end.isBefore(now)) {
+                        dataset.bookingFinished(booker, dataset.itemId(item));
+                    }
+                }
+            }
+        }
+    }
+
+    private void insertComments(Connection connection, long firstId, Dataset dataset) throws SQLException {
+        if (dataset.getCommentable().isEmpty()) {
+            return;
+        }
+        try (TableWriter comments = TableWriter.open(connection, "comments",
+                "id", "text", "item_id", "author_id", "created")) {
+            for (int i = 0; i < settings.getComments(); i++) {
+                long[] pair = dataset.randomCommentable(random);
+                comments.row(firstId + i, "Отзыв: " + word() + " в порядке", pair[1], pair[0],
+                        now.minusMinutes(random.nextLong(PAST.toMinutes())));
+            }
+        }
+    }
+
+    private String status(LocalDateTime start, LocalDateTime end) {
+        int roll = random.nextInt(100);
+        if (end.isBefore(now)) {
+            return roll < 70 ? "APPROVED" : roll < 85 ? "REJECTED" : "CANCELED";
+        } else if (start.isBefore(now)) {
+            return "APPROVED";
+        }
+        return roll < 50 ? "WAITING" : roll < 90 ? "APPROVED" : "REJECTED";
+    }
+
+    private String word() {
+        return Dataset.WORDS[random.nextInt(Dataset.WORDS.length)];
+    }
+
+    private long nextId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private void restartIdentity(Connection connection, String table, long next) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Задержки и ошибки по эндпоинтам за прогон. Отчет — число запросов, пропускная способность,
+ * p50, p99 и максимум по каждому эндпоинту, затем коды ответов с ошибками (0 — запрос не выполнен).
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long nanos, int status) {
+        endpoints.computeIfAbsent(endpoint, name -> new Endpoint()).add(nanos, status);
+    }
+
+    public String report(Duration elapsed) {
+        StringBuilder report = new StringBuilder(String.format("%-32s %9s %7s %9s %10s %10s %10s%n",
+                "Эндпоинт", "Запросов", "Ошибок", "Запр/с", "p50, мс", "p99, мс", "max, мс"));
+        double seconds = elapsed.toMillis() / 1000.0;
+        Map<String, Endpoint> byName = new TreeMap<>(endpoints);
+        byName.forEach((name, endpoint) -> {
+            long[] sorted = endpoint.sorted();
+            Map<Integer, Long> errors = endpoint.errors();
+            report.append(String.format("%-32s %9d %7d %9.1f %10.2f %10.2f %10.2f%n",
+                    name, sorted.length, errors.values().stream().mapToLong(Long::longValue).sum(),
+                    sorted.length / seconds, millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)),
+                    millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1])));
+        });
+        byName.forEach((name, endpoint) -> {
+            Map<Integer, Long> errors = endpoint.errors();
+            if (!errors.isEmpty()) {
+                report.append(String.format("%-32s коды ошибок: %s%n", name, errors));
+            }
+        });
+        return report.toString();
+    }
+
+    private static long percentile(long[] sorted, double rank) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.ceil(rank * sorted.length) - 1];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Endpoint {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private final Map<Integer, Long> errors = new TreeMap<>();
+
+        synchronized void add(long nanos, int status) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            if (status == 0 || status >= 400) {
+                errors.merge(status, 1L, Long::sum);
+            }
+        }
+
+        synchronized Map<Integer, Long> errors() {
+            return new TreeMap<>(errors);
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
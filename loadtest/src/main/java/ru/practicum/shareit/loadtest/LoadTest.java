@@ -0,0 +1,76 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Нагрузочный прогон: запускает сервер и шлюз из собранных jar, генерирует данные в базу сервера,
+ * прогревает и гоняет сценарии через шлюз, печатает задержки по эндпоинтам и сохраняет их в report.txt
+ * рабочего каталога.
+ * <p>
+ * Аргументы key=value, см. {@link LoadTestSettings}: users, requests, items, bookings, comments, owner-skew,
+ * concurrency, warmup и duration (в секундах), db.url, db.user, db.password.
+ */
+@Slf4j
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.from(args);
+        log.info("Параметры прогона: {}", settings);
+        Path workDir = settings.getWorkDir();
+        Files.createDirectories(workDir);
+        if (settings.isEmbeddedDatabase()) {
+            deleteDatabaseFiles(workDir);
+        }
+
+        try (ServiceProcess server = ServiceProcess.start("server", settings.getServerJar(), workDir,
+                serverArgs(settings))) {
+            server.awaitHealthy();
+            Dataset dataset = new DatasetGenerator(settings).generate();
+
+            try (ServiceProcess gateway = ServiceProcess.start("gateway", settings.getGatewayJar(), workDir,
+                    List.of("--shareit-server.url=" + server.baseUrl(),
+                            "--logging.level.org.springframework.web.client.RestTemplate=INFO"))) {
+                gateway.awaitHealthy();
+                Scenarios scenarios = new Scenarios(gateway.baseUrl(), dataset);
+
+                log.info("Прогрев {} с", settings.getWarmup().toSeconds());
+                scenarios.run(settings.getConcurrency(), settings.getWarmup());
+                log.info("Замер {} с, виртуальных пользователей: {}", settings.getDuration().toSeconds(),
+                        settings.getConcurrency());
+                String report = scenarios.run(settings.getConcurrency(), settings.getDuration())
+                        .report(settings.getDuration());
+
+                Path reportFile = workDir.resolve("report.txt");
+                Files.writeString(reportFile, settings + System.lineSeparator() + report, StandardCharsets.UTF_8);
+                log.info("Результаты (сохранены в {}):{}{}", reportFile, System.lineSeparator(), report);
+            }
+        }
+    }
+
+    private static List<String> serverArgs(LoadTestSettings settings) {
+        List<String> args = new ArrayList<>();
+        if (settings.isEmbeddedDatabase()) {
+            // Профиль test создает схему по сущностям и использует переносимый LIKE-поиск
+            args.add("--spring.profiles.active=test");
+        }
+        args.add("--spring.datasource.url=" + settings.getDbUrl());
+        args.add("--spring.datasource.username=" + settings.getDbUser());
+        args.add("--spring.datasource.password=" + settings.getDbPassword());
+        return args;
+    }
+
+    private static void deleteDatabaseFiles(Path workDir) throws Exception {
+        try (Stream<Path> files = Files.list(workDir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().startsWith("shareit.")).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
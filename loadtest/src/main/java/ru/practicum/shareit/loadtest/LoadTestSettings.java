@@ -0,0 +1,76 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Параметры прогона из аргументов вида key=value. Без db.url сервер работает на файловой H2
+ * в рабочем каталоге, с адресом PostgreSQL — на этой базе с миграциями Flyway.
+ */
+@Getter
+@ToString
+public class LoadTestSettings {
+
+    private final int users;
+    private final int requests;
+    private final int items;
+    private final int bookings;
+    private final int comments;
+    private final double ownerSkew;
+
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+
+    private final String dbUrl;
+    private final String dbUser;
+    private final String dbPassword;
+
+    private final Path workDir;
+    private final Path serverJar;
+    private final Path gatewayJar;
+
+    private LoadTestSettings(Map<String, String> args) {
+        users = Integer.parseInt(args.getOrDefault("users", "2000"));
+        requests = Integer.parseInt(args.getOrDefault("requests", "500"));
+        items = Integer.parseInt(args.getOrDefault("items", "10000"));
+        bookings = Integer.parseInt(args.getOrDefault("bookings", "100000"));
+        comments = Integer.parseInt(args.getOrDefault("comments", "20000"));
+        // Доля вещей у владельца убывает как степень: при 3 десятая часть пользователей владеет почти половиной вещей
+        ownerSkew = Double.parseDouble(args.getOrDefault("owner-skew", "3"));
+
+        concurrency = Integer.parseInt(args.getOrDefault("concurrency", "16"));
+        warmup = Duration.ofSeconds(Long.parseLong(args.getOrDefault("warmup", "15")));
+        duration = Duration.ofSeconds(Long.parseLong(args.getOrDefault("duration", "60")));
+
+        workDir = Path.of(args.getOrDefault("work-dir", System.getProperty("loadtest.work-dir", "target/loadtest")))
+                .toAbsolutePath();
+        serverJar = Path.of(args.getOrDefault("server-jar", System.getProperty("loadtest.server-jar", "")));
+        gatewayJar = Path.of(args.getOrDefault("gateway-jar", System.getProperty("loadtest.gateway-jar", "")));
+
+        dbUrl = args.getOrDefault("db.url", "jdbc:h2:file:" + workDir.resolve("shareit") + ";AUTO_SERVER=TRUE");
+        dbUser = args.getOrDefault("db.user", "shareit");
+        dbPassword = args.getOrDefault("db.password", "shareit");
+    }
+
+    public static LoadTestSettings from(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Ожидался аргумент вида key=value: " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestSettings(values);
+    }
+
+    public boolean isEmbeddedDatabase() {
+        return dbUrl.startsWith("jdbc:h2:");
+    }
+}
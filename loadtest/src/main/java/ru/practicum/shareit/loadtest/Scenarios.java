@@ -0,0 +1,186 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сценарии пользователей через шлюз. Каждый виртуальный пользователь в цикле выбирает сценарий по весу:
+ * просмотр вещи и списков бронирований (50), поиск (20), бронирование (15), подтверждение бронирования
+ * владельцем (10) и отзыв (5). Подтверждаются бронирования, созданные сценарием бронирования.
+ */
+@Slf4j
+public class Scenarios {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING"};
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final String gatewayUrl;
+    private final Dataset dataset;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(REQUEST_TIMEOUT)
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Queue<long[]> awaitingApproval = new ConcurrentLinkedQueue<>();
+    // Новые бронирования идут после окна сгенерированных и друг за другом, поэтому не пересекаются
+    private final LocalDateTime bookingsFrom = LocalDateTime.now().plusDays(60).truncatedTo(ChronoUnit.HOURS);
+    private final AtomicLong bookingSlot = new AtomicLong();
+
+    public Scenarios(String gatewayUrl, Dataset dataset) {
+        this.gatewayUrl = gatewayUrl;
+        this.dataset = dataset;
+    }
+
+    /**
+     * Запускает concurrency виртуальных пользователей на duration и возвращает записанные задержки.
+     */
+    public LatencyRecorder run(int concurrency, Duration duration) throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> users = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Random random = new Random(i);
+            users.add(executor.submit(() -> {
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    iteration(random, recorder);
+                }
+                return null;
+            }));
+        }
+        executor.shutdown();
+        for (Future<?> user : users) {
+            try {
+                user.get();
+            } catch (ExecutionException e) {
+                log.error("Виртуальный пользователь завершился с ошибкой", e.getCause());
+            }
+        }
+        return recorder;
+    }
+
+    private void iteration(Random random, LatencyRecorder recorder) throws IOException, InterruptedException {
+        int roll = random.nextInt(100);
+        if (roll < 50) {
+            browse(random, recorder);
+        } else if (roll < 70) {
+            search(random, recorder);
+        } else if (roll < 85) {
+            book(random, recorder);
+        } else if (roll < 95) {
+            approve(random, recorder);
+        } else {
+            comment(random, recorder);
+        }
+    }
+
+    private void browse(Random random, LatencyRecorder recorder) throws IOException, InterruptedException {
+        int item = dataset.randomItemIndex(random);
+        send(recorder, "GET /items/{id}", get("/items/" + dataset.itemId(item), null));
+        String state = STATES[random.nextInt(STATES.length)];
+        send(recorder, "GET /bookings", get("/bookings?state=" + state, dataset.randomUser(random)));
+        send(recorder, "GET /bookings/owner", get("/bookings/owner?state=" + state, dataset.ownerOf(item)));
+    }
+
+    private void search(Random random, LatencyRecorder recorder) throws IOException, InterruptedException {
+        String text = Dataset.WORDS[random.nextInt(Dataset.WORDS.length)];
+        send(recorder, "GET /items/search",
+                get("/items/search?text=" + URLEncoder.encode(text, StandardCharsets.UTF_8), null));
+    }
+
+    private void book(Random random, LatencyRecorder recorder) throws IOException, InterruptedException {
+        int item = dataset.randomItemIndex(random);
+        while (!dataset.isAvailable(item)) {
+            item = dataset.randomItemIndex(random);
+        }
+        long booker = dataset.randomUserExcept(random, dataset.ownerOf(item));
+        LocalDateTime start = bookingsFrom.plusHours(2 * bookingSlot.getAndIncrement());
+        HttpResponse<String> response = send(recorder, "POST /bookings", post("/bookings", booker, Map.of(
+                "itemId", dataset.itemId(item),
+                "start", start.toString(),
+                "end", start.plusHours(1).toString())));
+        if (response != null && response.statusCode() == 200) {
+            JsonNode booking = mapper.readTree(response.body());
+            awaitingApproval.add(new long[]{booking.get("id").asLong(), dataset.ownerOf(item)});
+        }
+    }
+
+    private void approve(Random random, LatencyRecorder recorder) throws IOException, InterruptedException {
+        long[] booking = awaitingApproval.poll();
+        if (booking == null) {
+            book(random, recorder);
+            return;
+        }
+        HttpRequest request = builder("/bookings/" + booking[0] + "?approved=" + random.nextBoolean(), booking[1])
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build();
+        send(recorder, "PATCH /bookings/{id}", request);
+    }
+
+    private void comment(Random random, LatencyRecorder recorder) throws IOException, InterruptedException {
+        long[] pair = dataset.randomCommentable(random);
+        if (pair == null) {
+            return;
+        }
+        send(recorder, "POST /items/{id}/comment", post("/items/" + pair[1] + "/comment", pair[0],
+                Map.of("text", "Все понравилось")));
+    }
+
+    private HttpResponse<String> send(LatencyRecorder recorder, String endpoint, HttpRequest request)
+            throws InterruptedException {
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            recorder.record(endpoint, System.nanoTime() - started, response.statusCode());
+            return response;
+        } catch (IOException e) {
+            log.debug("Запрос {} не выполнен: {}", endpoint, e.toString());
+            recorder.record(endpoint, System.nanoTime() - started, 0);
+            return null;
+        }
+    }
+
+    private HttpRequest get(String path, Long userId) {
+        return builder(path, userId).GET().build();
+    }
+
+    private HttpRequest post(String path, long userId, Map<String, Object> body) throws JsonProcessingException {
+        return builder(path, userId)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
+                .build();
+    }
+
+    private HttpRequest.Builder builder(String path, Long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(gatewayUrl + path)).timeout(REQUEST_TIMEOUT);
+        if (userId != null) {
+            builder.header(USER_HEADER, userId.toString());
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.loadtest;
+
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+/**
+ * Построчная запись в таблицу: в PostgreSQL через COPY, в остальных базах пакетными INSERT.
+ * Строки копятся в памяти и отправляются порциями по {@link #BATCH_SIZE}.
+ */
+abstract class TableWriter implements AutoCloseable {
+
+    static final int BATCH_SIZE = 5000;
+
+    protected final String table;
+    protected final String[] columns;
+    protected int pending;
+
+    protected TableWriter(String table, String... columns) {
+        this.table = table;
+        this.columns = columns;
+    }
+
+    static TableWriter open(Connection connection, String table, String... columns) throws SQLException {
+        if (connection.isWrapperFor(BaseConnection.class)) {
+            return new Copy(connection.unwrap(BaseConnection.class), table, columns);
+        }
+        return new Batch(connection, table, columns);
+    }
+
+    void row(Object... values) throws SQLException {
+        append(values);
+        if (++pending == BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (pending > 0) {
+            flush();
+        }
+    }
+
+    protected abstract void append(Object... values) throws SQLException;
+
+    protected abstract void flush() throws SQLException;
+
+    private static final class Batch extends TableWriter {
+
+        private final PreparedStatement statement;
+
+        private Batch(Connection connection, String table, String... columns) throws SQLException {
+            super(table, columns);
+            statement = connection.prepareStatement("INSERT INTO " + table + " (" + String.join(", ", columns)
+                    + ") VALUES (" + String.join(", ", Collections.nCopies(columns.length, "?")) + ")");
+        }
+
+        @Override
+        protected void append(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i] instanceof LocalDateTime time ? Timestamp.valueOf(time) : values[i];
+                statement.setObject(i + 1, value);
+            }
+            statement.addBatch();
+        }
+
+        @Override
+        protected void flush() throws SQLException {
+            statement.executeBatch();
+            pending = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            super.close();
+            statement.close();
+        }
+    }
+
+    private static final class Copy extends TableWriter {
+
+        private final CopyManager copyManager;
+        private final StringBuilder buffer = new StringBuilder();
+
+        private Copy(BaseConnection connection, String table, String... columns) throws SQLException {
+            super(table, columns);
+            copyManager = new CopyManager(connection);
+        }
+
+        @Override
+        protected void append(Object... values) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                if (values[i] != null) {
+                    buffer.append('"').append(values[i].toString().replace("\"", "\"\"")).append('"');
+                }
+            }
+            buffer.append('\n');
+        }
+
+        @Override
+        protected void flush() throws SQLException {
+            try {
+                copyManager.copyIn("COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)",
+                        new StringReader(buffer.toString()));
+            } catch (IOException e) {
+                throw new SQLException("Не удалось выполнить COPY в таблицу " + table, e);
+            }
+            buffer.setLength(0);
+            pending = 0;
+        }
+    }
+}
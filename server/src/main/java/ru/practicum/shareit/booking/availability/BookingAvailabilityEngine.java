@@ -0,0 +1,219 @@
+package ru.practicum.shareit.booking.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.CacheTier;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Занятость вещей по бронированиям в статусах WAITING и APPROVED.
+ * Бронирования одной вещи сериализуются блокировкой из полосы по id вещи, разные вещи друг другу не мешают.
+ * Источник истины — ограничение исключения bookings_no_overlap в Postgres (миграция V4):
+ * при его срабатывании кэш вещи сбрасывается и перечитывается из базы.
+ * Между экземплярами сервера занятость делится через общий уровень {@link CacheTier}: экземпляр,
+ * изменивший занятость вещи, сбрасывает ее у остальных.
+ * Занятость хранится для ограниченного числа вещей и вытесняется, если к вещи давно не обращались;
+ * загрузка из базы идет под блокировкой вещи, поэтому не пересекается с ее бронированием и сбросом.
+ * В кэше лежат только периоды, которые не закончились к моменту загрузки: прошедшие не пересекаются с новыми
+ * бронированиями, а календарь за прошлое читается из базы, см. {@link #busy(Long, LocalDateTime, LocalDateTime)}.
+ */
+@Slf4j
+@Component
+public class BookingAvailabilityEngine {
+
+    public static final List<Status> OCCUPYING_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+    public static final String CACHE_NAME = "availabilityTimelines";
+    static final String OVERLAP_CONSTRAINT = "bookings_no_overlap";
+    private static final int STRIPES = 64;
+
+    private final BookingRepository repository;
+    private final CacheTier tier;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final Cache<Long, ItemTimeline> timelines;
+
+    public BookingAvailabilityEngine(BookingRepository repository,
+                                     CacheTier tier,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${shareit.availability.maximum-size}") long maximumSize,
+                                     @Value("${shareit.availability.expire-after-access}") Duration expireAfterAccess) {
+        this.repository = repository;
+        this.tier = tier;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, timelines, CACHE_NAME);
+        tier.onRemoteInvalidation(CACHE_NAME, itemId -> {
+            if (itemId == null) {
+                timelines.invalidateAll();
+            } else {
+                timelines.invalidate((Long) itemId);
+            }
+        });
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Сохраняет бронирование, если период свободен, иначе бросает ValidationException.
+     */
+    public Booking book(Booking booking, UnaryOperator<Booking> save) {
+        Long itemId = booking.getItem().getId();
+        long start = toEpochSecond(booking.getStart());
+        long end = toEpochSecond(booking.getEnd());
+
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            ItemTimeline timeline = timeline(itemId);
+            boolean overlaps = timeline.covers(start)
+                    ? timeline.overlaps(start, end)
+                    : !repository.findIntervals(itemId, OCCUPYING_STATUSES, booking.getStart(), booking.getEnd())
+                    .isEmpty();
+            if (overlaps) {
+                throw overlapException(itemId);
+            }
+            Booking saved;
+            try {
+                saved = save.apply(booking);
+            } catch (DataIntegrityViolationException e) {
+                timelines.invalidate(itemId);
+                tier.invalidate(CACHE_NAME, itemId);
+                if (isOverlapViolation(e)) {
+                    throw overlapException(itemId);
+                }
+                throw e;
+            }
+            // Заодно отбрасываем закончившиеся периоды: у часто бронируемой вещи набор не растет с историей
+            long now = toEpochSecond(LocalDateTime.now());
+            timelines.put(itemId, timeline.after(now).with(saved.getId(), start, end));
+            tier.invalidate(CACHE_NAME, itemId);
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Сбрасывает занятость вещи, когда отклонение или отмена бронирования уже закоммичены.
+     * До коммита сбрасывать нельзя: загрузка в этом окне еще видит бронирование занимающим и закэширует это.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingReleased(BookingReleasedEvent event) {
+        ReentrantLock lock = lockFor(event.getItemId());
+        lock.lock();
+        try {
+            timelines.invalidate(event.getItemId());
+            tier.invalidate(CACHE_NAME, event.getItemId());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return busy(itemId, start, end).length == 0;
+    }
+
+    /**
+     * Занятые периоды вещи внутри [from, to) парами, как {@link ItemTimeline#busy(long, long)}.
+     * Период, который начинается раньше кэшированной занятости, читается из базы.
+     */
+    public long[] busy(Long itemId, LocalDateTime from, LocalDateTime to) {
+        long start = toEpochSecond(from);
+        long end = toEpochSecond(to);
+        ItemTimeline timeline = timeline(itemId);
+        if (timeline.covers(start)) {
+            return timeline.busy(start, end);
+        }
+        return toTimeline(repository.findIntervals(itemId, OCCUPYING_STATUSES, from, to), start).busy(start, end);
+    }
+
+    public ItemTimeline timeline(Long itemId) {
+        ItemTimeline timeline = timelines.getIfPresent(itemId);
+        if (timeline != null) {
+            return timeline;
+        }
+        // Запрос к базе — под блокировкой вещи, а не внутри вычисления кэша: промахи по одной вещи ждут одну
+        // загрузку, остальные вещи не блокируются
+        ReentrantLock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            timeline = timelines.getIfPresent(itemId);
+            if (timeline == null) {
+                timeline = load(itemId);
+                timelines.put(itemId, timeline);
+            }
+            return timeline;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static long toEpochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static LocalDateTime fromEpochSecond(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    private ItemTimeline load(Long itemId) {
+        if (tier.get(CACHE_NAME, itemId) instanceof ItemTimeline shared) {
+            return shared;
+        }
+        long generation = tier.generation(CACHE_NAME, itemId);
+        LocalDateTime now = LocalDateTime.now();
+        ItemTimeline timeline = toTimeline(repository.findIntervalsEndingAfter(itemId, OCCUPYING_STATUSES, now),
+                toEpochSecond(now));
+        log.debug("Загружена занятость вещи с ID={}: {} периодов", itemId, timeline.size());
+        tier.putIfCurrent(CACHE_NAME, itemId, timeline, generation);
+        return timeline;
+    }
+
+    private static ItemTimeline toTimeline(List<BookingInterval> intervals, long since) {
+        long[] ids = new long[intervals.size()];
+        long[] starts = new long[intervals.size()];
+        long[] ends = new long[intervals.size()];
+        for (int i = 0; i < intervals.size(); i++) {
+            BookingInterval interval = intervals.get(i);
+            ids[i] = interval.getId();
+            starts[i] = toEpochSecond(interval.getStart());
+            ends[i] = toEpochSecond(interval.getEnd());
+        }
+        return ItemTimeline.of(ids, starts, ends, since);
+    }
+
+    private ReentrantLock lockFor(Long itemId) {
+        int hash = Long.hashCode(itemId);
+        return locks[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.contains(OVERLAP_CONSTRAINT);
+    }
+
+    private static ValidationException overlapException(Long itemId) {
+        return new ValidationException("Вещь с ID=" + itemId + " уже забронирована на пересекающийся период!");
+    }
+}
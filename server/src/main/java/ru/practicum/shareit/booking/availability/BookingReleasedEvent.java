@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Бронирование отклонено или отменено и больше не занимает вещь.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookingReleasedEvent {
+    private final Long itemId;
+    private final Long bookingId;
+}
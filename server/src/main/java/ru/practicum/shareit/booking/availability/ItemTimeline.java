@@ -0,0 +1,189 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Неизменяемый набор занятых периодов [start, end) одной вещи в секундах эпохи, отсортированный по началу.
+ * maxEnds[i] — наибольший конец среди первых i + 1 периодов, поэтому пересечение проверяется двоичным поиском.
+ * Периоды, закончившиеся не позже since, в наборе не хранятся: запросы о более раннем времени он не покрывает.
+ */
+public final class ItemTimeline implements Serializable {
+
+    private final long[] bookingIds;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+    private final long since;
+
+    private ItemTimeline(long[] bookingIds, long[] starts, long[] ends, long since) {
+        this.bookingIds = bookingIds;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new long[ends.length];
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+        this.since = since;
+    }
+
+    /**
+     * Массивы периодов должны быть отсортированы по началу.
+     */
+    static ItemTimeline of(long[] bookingIds, long[] starts, long[] ends, long since) {
+        return new ItemTimeline(bookingIds, starts, ends, since);
+    }
+
+    /**
+     * Хранит ли набор все периоды, которые заканчиваются позже time.
+     */
+    public boolean covers(long time) {
+        return time >= since;
+    }
+
+    public boolean overlaps(long start, long end) {
+        int candidates = firstStartNotBefore(end);
+        return candidates > 0 && maxEnds[candidates - 1] > start;
+    }
+
+    /**
+     * Занятые периоды внутри [from, to), слитые и обрезанные по границам, парами: start0, end0, start1, end1, ...
+     */
+    public long[] busy(long from, long to) {
+        int first = firstMaxEndAfter(from);
+        long[] merged = new long[2 * (starts.length - first)];
+        int n = 0;
+        for (int i = first; i < starts.length && starts[i] < to; i++) {
+            if (ends[i] <= from) {
+                continue;
+            }
+            long start = Math.max(starts[i], from);
+            long end = Math.min(ends[i], to);
+            if (n > 0 && start <= merged[n - 1]) {
+                merged[n - 1] = Math.max(merged[n - 1], end);
+            } else {
+                merged[n++] = start;
+                merged[n++] = end;
+            }
+        }
+        return Arrays.copyOf(merged, n);
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    public long startAt(int index) {
+        return starts[index];
+    }
+
+    public long endAt(int index) {
+        return ends[index];
+    }
+
+    ItemTimeline with(long bookingId, long start, long end) {
+        ItemTimeline timeline = without(bookingId);
+        int pos = timeline.firstStartAfter(start);
+        int size = timeline.size();
+        long[] newIds = new long[size + 1];
+        long[] newStarts = new long[size + 1];
+        long[] newEnds = new long[size + 1];
+        insert(timeline.bookingIds, newIds, pos, bookingId);
+        insert(timeline.starts, newStarts, pos, start);
+        insert(timeline.ends, newEnds, pos, end);
+        return new ItemTimeline(newIds, newStarts, newEnds, since);
+    }
+
+    ItemTimeline without(long bookingId) {
+        for (int i = 0; i < bookingIds.length; i++) {
+            if (bookingIds[i] == bookingId) {
+                return of(remove(bookingIds, i), remove(starts, i), remove(ends, i), since);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Тот же набор без периодов, закончившихся не позже time.
+     */
+    ItemTimeline after(long time) {
+        if (time <= since) {
+            return this;
+        }
+        int kept = 0;
+        for (long end : ends) {
+            if (end > time) {
+                kept++;
+            }
+        }
+        long[] newIds = new long[kept];
+        long[] newStarts = new long[kept];
+        long[] newEnds = new long[kept];
+        int n = 0;
+        for (int i = 0; i < ends.length; i++) {
+            if (ends[i] > time) {
+                newIds[n] = bookingIds[i];
+                newStarts[n] = starts[i];
+                newEnds[n++] = ends[i];
+            }
+        }
+        return new ItemTimeline(newIds, newStarts, newEnds, time);
+    }
+
+    /**
+     * Индекс первого периода, который начинается не раньше time.
+     */
+    private int firstStartNotBefore(long time) {
+        int pos = Arrays.binarySearch(starts, time);
+        if (pos < 0) {
+            return -pos - 1;
+        }
+        while (pos > 0 && starts[pos - 1] == time) {
+            pos--;
+        }
+        return pos;
+    }
+
+    /**
+     * Индекс первого периода, до которого включительно какой-то период заканчивается позже time.
+     */
+    private int firstMaxEndAfter(long time) {
+        int low = 0;
+        int high = maxEnds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (maxEnds[mid] > time) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Индекс первого периода, который начинается позже time.
+     */
+    private int firstStartAfter(long time) {
+        int pos = firstStartNotBefore(time);
+        while (pos < starts.length && starts[pos] == time) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static void insert(long[] source, long[] target, int pos, long value) {
+        System.arraycopy(source, 0, target, 0, pos);
+        target[pos] = value;
+        System.arraycopy(source, pos, target, pos + 1, source.length - pos);
+    }
+
+    private static long[] remove(long[] source, int pos) {
+        long[] target = new long[source.length - 1];
+        System.arraycopy(source, 0, target, 0, pos);
+        System.arraycopy(source, pos + 1, target, pos, source.length - pos - 1);
+        return target;
+    }
+}
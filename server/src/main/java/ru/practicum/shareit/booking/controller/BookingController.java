@@ -2,11 +2,13 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.dto.BookUpdateRequestDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.exception.CustomUserNotFoundException;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.dao.UserRepository;
@@ -19,6 +21,7 @@ import java.util.List;
 public class BookingController {
 
     private static final String USER_ID = "X-Sharer-User-Id";
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
     private final BookingService service;
     private final UserService userService;
     private final UserRepository userRepository;
@@ -31,11 +34,14 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getBookings(@RequestParam(name = "state", defaultValue = "ALL") String state,
-                                        @RequestHeader(USER_ID) Long userId) {
+    public ResponseEntity<List<BookingDto>> getBookings(
+            @RequestParam(name = "state", defaultValue = "ALL") String state,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestHeader(USER_ID) Long userId) {
         log.info("Получен GET-запрос к эндпоинту: '/bookings' на получение " +
                 "списка всех бронирований пользователя с ID={} с параметром STATE={}", userId, state);
-        return service.getBookings(state, userId);
+        return toResponse(service.getBookings(state, userId, cursor, size));
     }
 
     @ResponseBody
@@ -63,11 +69,22 @@ public class BookingController {
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getBookingsOwner(@RequestParam(name = "state", defaultValue = "ALL") String state,
-                                             @RequestHeader(USER_ID) Long userId) {
+    public ResponseEntity<List<BookingDto>> getBookingsOwner(
+            @RequestParam(name = "state", defaultValue = "ALL") String state,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestHeader(USER_ID) Long userId) {
         log.info("Получен GET-запрос к эндпоинту: '/bookings/owner' на получение " +
                 "списка всех бронирований вещей пользователя с ID={} с параметром STATE={}", userId, state);
-        return service.getBookingsOwner(state, userId);
+        return toResponse(service.getBookingsOwner(state, userId, cursor, size));
+    }
+
+    private ResponseEntity<List<BookingDto>> toResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 
     private void existUser(@RequestHeader(USER_ID) Long userId) {
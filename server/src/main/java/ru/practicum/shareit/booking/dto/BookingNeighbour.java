@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public interface BookingNeighbour {
+
+    String LAST = "LAST";
+    String NEXT = "NEXT";
+
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    Long getBookerId();
+
+    Long getItemId();
+
+    String getKind(); // LAST — последнее завершённое бронирование, NEXT — ближайшее будущее
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка списка бронирований: только колонки, которые попадают в BookingDto, без гидрации сущностей.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingRow {
+    private final Long id;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final Status status;
+    private final Long bookerId;
+    private final String bookerName;
+    private final String bookerEmail;
+    private final Long itemId;
+    private final String itemName;
+    private final Boolean itemAvailable;
+}
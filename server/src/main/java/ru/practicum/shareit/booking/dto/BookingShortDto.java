@@ -4,12 +4,13 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @Builder
 @Data
 @AllArgsConstructor
-public class BookingShortDto {
+public class BookingShortDto implements Serializable {
 
     private Long id;
     private LocalDateTime start;
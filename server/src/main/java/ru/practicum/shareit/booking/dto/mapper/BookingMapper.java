@@ -4,14 +4,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingNeighbour;
+import ru.practicum.shareit.booking.dto.BookingRow;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
+import java.util.List;
+
 @Component
 public class BookingMapper {
     private final UserService userService;
@@ -30,19 +37,38 @@ public class BookingMapper {
 
     public BookingDto toBookingDto(Booking booking) {
         if (booking != null) {
-            return new BookingDto(
-                    booking.getId(),
-                    booking.getStart(),
-                    booking.getEnd(),
-                    booking.getStatus(),
-                    userMapper.toUserDto(booking.getBooker()),
-                    itemMapper.toItemDto(booking.getItem())
-            );
+            return toBookingDto(booking, itemService.getCommentsByItemId(booking.getItem().getId()));
         } else {
             return null;
         }
     }
 
+    public BookingDto toBookingDto(Booking booking, List<CommentDto> itemComments) {
+        return new BookingDto(
+                booking.getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                booking.getStatus(),
+                userMapper.toUserDto(booking.getBooker()),
+                itemMapper.toItemDto(booking.getItem(), itemComments)
+        );
+    }
+
+    public BookingDto toBookingDto(BookingRow row) {
+        return new BookingDto(
+                row.getId(),
+                row.getStart(),
+                row.getEnd(),
+                row.getStatus(),
+                new UserDto(row.getBookerId(), row.getBookerName(), row.getBookerEmail()),
+                ItemDto.builder()
+                        .id(row.getItemId())
+                        .name(row.getItemName())
+                        .available(row.getItemAvailable())
+                        .build()
+        );
+    }
+
     public BookingShortDto toBookingShortDto(Booking booking) {
         if (booking != null) {
             return new BookingShortDto(
@@ -56,6 +82,15 @@ public class BookingMapper {
         }
     }
 
+    public BookingShortDto toBookingShortDto(BookingNeighbour neighbour) {
+        return new BookingShortDto(
+                neighbour.getId(),
+                neighbour.getStart(),
+                neighbour.getEnd(),
+                neighbour.getBookerId()
+        );
+    }
+
     public Booking toBooking(BookingInputDto bookingInputDto, Long bookerId) {
         return new Booking(
                 null,
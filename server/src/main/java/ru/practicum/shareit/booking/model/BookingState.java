@@ -8,7 +8,9 @@ public enum BookingState {
     PAST,
     FUTURE,
     WAITING,
-    REJECTED;
+    APPROVED,
+    REJECTED,
+    CANCELED;
 
     public static BookingState from(String state) {
         try {
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Параметры выборки списка бронирований: чей список, в каком состоянии относительно now, с какой позиции и сколько
+ * (limit не задан — все бронирования после позиции).
+ * Необязательные itemId, status, rangeStart/rangeEnd сужают выборку и комбинируются с состоянием.
+ */
+@Getter
+@Builder
+@ToString
+public class BookingQuery {
+
+    public enum Role {
+        BOOKER, // бронирования пользователя
+        OWNER   // бронирования вещей пользователя
+    }
+
+    private final Role role;
+    private final Long userId;
+    @Builder.Default
+    private final BookingState state = BookingState.ALL;
+    private final LocalDateTime now;
+    @Builder.Default
+    private final BookingCursor cursor = BookingCursor.first();
+    private final Integer limit;
+
+    private final Long itemId;
+    private final Status status;
+    private final LocalDateTime rangeStart; // бронирование заканчивается позже
+    private final LocalDateTime rangeEnd;   // бронирование начинается раньше
+}
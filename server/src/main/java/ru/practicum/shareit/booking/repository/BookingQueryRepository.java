@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingRow;
+
+import java.util.List;
+
+public interface BookingQueryRepository {
+
+    /**
+     * Одним запросом возвращает страницу строк в порядке start DESC, id DESC.
+     */
+    List<BookingRow> find(BookingQuery query);
+}
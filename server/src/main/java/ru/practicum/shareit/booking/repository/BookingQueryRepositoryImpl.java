@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingRow;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingRow> find(BookingQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingRow> cq = cb.createQuery(BookingRow.class);
+        Root<Booking> booking = cq.from(Booking.class);
+        Join<Booking, User> booker = booking.join("booker");
+        Join<Booking, Item> item = booking.join("item");
+
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(switch (query.getRole()) {
+            case BOOKER -> cb.equal(booker.get("id"), query.getUserId());
+            case OWNER -> cb.equal(item.get("owner").get("id"), query.getUserId());
+        });
+
+        LocalDateTime now = query.getNow();
+        switch (query.getState()) {
+            case ALL -> { }
+            case CURRENT -> {
+                where.add(cb.lessThan(start, now));
+                where.add(cb.greaterThan(end, now));
+            }
+            case PAST -> where.add(cb.lessThan(end, now));
+            case FUTURE -> where.add(cb.greaterThan(start, now));
+            case WAITING -> where.add(cb.equal(booking.get("status"), Status.WAITING));
+            case APPROVED -> where.add(cb.equal(booking.get("status"), Status.APPROVED));
+            case REJECTED -> where.add(cb.equal(booking.get("status"), Status.REJECTED));
+            case CANCELED -> where.add(cb.equal(booking.get("status"), Status.CANCELED));
+        }
+
+        if (query.getItemId() != null) {
+            where.add(cb.equal(item.get("id"), query.getItemId()));
+        }
+        if (query.getStatus() != null) {
+            where.add(cb.equal(booking.get("status"), query.getStatus()));
+        }
+        if (query.getRangeStart() != null) {
+            where.add(cb.greaterThan(end, query.getRangeStart()));
+        }
+        if (query.getRangeEnd() != null) {
+            where.add(cb.lessThan(start, query.getRangeEnd()));
+        }
+
+        BookingCursor cursor = query.getCursor();
+        where.add(cb.or(
+                cb.lessThan(start, cursor.getStart()),
+                cb.and(cb.equal(start, cursor.getStart()), cb.lessThan(id, cursor.getId()))));
+
+        cq.select(cb.construct(BookingRow.class,
+                        id, start, end, booking.get("status"),
+                        booker.get("id"), booker.get("name"), booker.get("email"),
+                        item.get("id"), item.get("name"), item.get("available")))
+                .where(where.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+
+        TypedQuery<BookingRow> rows = entityManager.createQuery(cq)
+                .setHint(HINT_READ_ONLY, true);
+        if (query.getLimit() != null) {
+            rows.setMaxResults(query.getLimit());
+        }
+        return rows.getResultList();
+    }
+}
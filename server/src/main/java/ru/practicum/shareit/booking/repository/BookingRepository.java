@@ -1,97 +1,37 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Sort;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.dto.BookingNeighbour;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
 
-    @Query("""
-           SELECT b FROM Booking b
-           WHERE b.booker.id = :bookerId
-           """)
-    List<Booking> findByBookerId(@Param("bookerId") Long bookerId, Sort sort);
-
-    @Query("""
-           SELECT b FROM Booking b
-           WHERE b.booker.id = :bookerId
-             AND b.start < :start
-             AND b.end > :end
-           """)
-    List<Booking> findActiveBookings(@Param("bookerId") Long bookerId,
-                                     @Param("start") LocalDateTime start,
-                                     @Param("end") LocalDateTime end, Sort sort);
-
-    @Query("""
-           SELECT b FROM Booking b
-           WHERE b.booker.id = :bookerId
-             AND b.end < :end
-           """)
-    List<Booking> findPastBookings(@Param("bookerId") Long bookerId,
-                                   @Param("end") LocalDateTime end, Sort sort);
-
-    @Query("""
-           SELECT b FROM Booking b
-           WHERE b.booker.id = :bookerId
-             AND b.start > :start
-           """)
-    List<Booking> findFutureBookings(@Param("bookerId") Long bookerId,
-                                     @Param("start") LocalDateTime start, Sort sort);
-
-    @Query("""
-           SELECT b FROM Booking b
-           WHERE b.booker.id = :bookerId
-             AND b.status = :status
-           """)
-    List<Booking> findByBookerAndStatus(@Param("bookerId") Long bookerId,
-                                        @Param("status") Status status, Sort sort);
-
-    @Query("""
-           SELECT b FROM Booking b
-           WHERE b.item.owner.id = :ownerId
-           """)
-    List<Booking> findByOwner(@Param("ownerId") Long ownerId, Sort sort);
+    @Override
+    @EntityGraph(Booking.LIST_GRAPH)
+    Optional<Booking> findById(Long id);
 
-    @Query("""
-           SELECT b FROM Booking b
-           WHERE b.item.owner.id = :ownerId
-             AND b.start < :start
-             AND b.end > :end
-           """)
-    List<Booking> findOwnerActiveBookings(@Param("ownerId") Long ownerId,
-                                          @Param("start") LocalDateTime start,
-                                          @Param("end") LocalDateTime end, Sort sort);
-
-    @Query("""
-           SELECT b FROM Booking b
-           WHERE b.item.owner.id = :ownerId
-             AND b.end < :end
-           """)
-    List<Booking> findOwnerPastBookings(@Param("ownerId") Long ownerId,
-                                        @Param("end") LocalDateTime end, Sort sort);
-
-    @Query("""
-           SELECT b FROM Booking b
-           WHERE b.item.owner.id = :ownerId
-             AND b.start > :start
-           """)
-    List<Booking> findOwnerFutureBookings(@Param("ownerId") Long ownerId,
-                                          @Param("start") LocalDateTime start, Sort sort);
-
-    @Query("""
-           SELECT b FROM Booking b
-           WHERE b.item.owner.id = :ownerId
-             AND b.status = :status
-           """)
-    List<Booking> findOwnerBookingsByStatus(@Param("ownerId") Long ownerId,
-                                            @Param("status") Status status, Sort sort);
+    /**
+     * Бронирование вместе с бронирующим, вещью и ее владельцем одним запросом с блокировкой строки
+     * до конца транзакции. Вызывать внутри транзакции.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(Booking.LIST_GRAPH)
+    @Query("SELECT b FROM Booking b WHERE b.id = :id")
+    Optional<Booking> findByIdForUpdate(@Param("id") Long id);
 
+    @EntityGraph(Booking.LIST_GRAPH)
     @Query("""
            SELECT b FROM Booking b
            WHERE b.item.id = :itemId
@@ -101,6 +41,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     Booking findLastBookingBeforeEnd(@Param("itemId") Long itemId,
                                      @Param("end") LocalDateTime end);
 
+    @EntityGraph(Booking.LIST_GRAPH)
     @Query("""
            SELECT b FROM Booking b
            WHERE b.item.id = :itemId
@@ -110,6 +51,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     Booking findNextBookingAfterEnd(@Param("itemId") Long itemId,
                                     @Param("end") LocalDateTime end);
 
+    @EntityGraph(Booking.LIST_GRAPH)
     @Query("""
            SELECT b FROM Booking b
            WHERE b.item.id = :itemId
@@ -121,4 +63,51 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                            @Param("userId") Long userId,
                                            @Param("end") LocalDateTime end,
                                            @Param("status") Status status);
+
+    @Query(value = """
+           SELECT t."id", t."start", t."end", t."bookerId", t."itemId", t."kind"
+           FROM (SELECT b.id AS "id",
+                        b.start_date AS "start",
+                        b.end_date AS "end",
+                        b.booker_id AS "bookerId",
+                        b.item_id AS "itemId",
+                        CASE WHEN b.end_date < :now THEN 'LAST' ELSE 'NEXT' END AS "kind",
+                        ROW_NUMBER() OVER (
+                            PARTITION BY b.item_id, CASE WHEN b.end_date < :now THEN 0 ELSE 1 END
+                            ORDER BY CASE WHEN b.end_date < :now THEN b.end_date END DESC,
+                                     b.start_date ASC) AS rn
+                 FROM bookings b
+                 WHERE b.item_id IN (:itemIds)
+                   AND b.status = 'APPROVED'
+                   AND (b.end_date < :now OR b.start_date > :now)) t
+           WHERE t.rn = 1
+           """, nativeQuery = true)
+    List<BookingNeighbour> findApprovedNeighbours(@Param("itemIds") Collection<Long> itemIds,
+                                                  @Param("now") LocalDateTime now);
+
+    // Прошедшие периоды не пересекаются с новыми бронированиями, поэтому занятость вещи в кэше
+    // начинается с момента загрузки и не растет вместе с историей вещи
+    @Query("""
+           SELECT b.id AS id, b.start AS start, b.end AS end FROM Booking b
+           WHERE b.item.id = :itemId
+             AND b.status IN :statuses
+             AND b.end > :after
+           ORDER BY b.start
+           """)
+    List<BookingInterval> findIntervalsEndingAfter(@Param("itemId") Long itemId,
+                                                   @Param("statuses") Collection<Status> statuses,
+                                                   @Param("after") LocalDateTime after);
+
+    @Query("""
+           SELECT b.id AS id, b.start AS start, b.end AS end FROM Booking b
+           WHERE b.item.id = :itemId
+             AND b.status IN :statuses
+             AND b.end > :from
+             AND b.start < :to
+           ORDER BY b.start
+           """)
+    List<BookingInterval> findIntervals(@Param("itemId") Long itemId,
+                                        @Param("statuses") Collection<Status> statuses,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
 }
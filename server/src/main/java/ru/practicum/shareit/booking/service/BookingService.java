@@ -3,10 +3,14 @@ package ru.practicum.shareit.booking.service;
 import ru.practicum.shareit.booking.dto.BookUpdateRequestDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingNeighboursDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface BookingService {
 
@@ -18,11 +22,17 @@ public interface BookingService {
 
     List<BookingDto> getBookings(String state, Long userId);
 
+    BookingPageDto getBookings(String state, Long userId, String cursor, Integer size);
+
     List<BookingDto> getBookingsOwner(String state, Long userId);
 
+    BookingPageDto getBookingsOwner(String state, Long userId, String cursor, Integer size);
+
     BookingShortDto getLastBooking(Long itemId);
 
     BookingShortDto getNextBooking(Long itemId);
 
+    Map<Long, BookingNeighboursDto> getBookingNeighbours(Collection<Long> itemIds);
+
     Booking getBookingWithUserBookedItem(Long itemId, Long userId);
 }
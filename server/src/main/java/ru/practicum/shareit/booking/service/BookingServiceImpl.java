@@ -2,47 +2,73 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityEngine;
+import ru.practicum.shareit.booking.availability.BookingReleasedEvent;
 import ru.practicum.shareit.booking.dto.BookUpdateRequestDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingNeighbour;
+import ru.practicum.shareit.booking.dto.BookingNeighboursDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingRow;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.dto.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.CustomUserNotFoundException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.service.ItemOwnershipChecker;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class BookingServiceImpl implements BookingService {
 
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final BookingRepository repository;
     private final BookingMapper mapper;
     private final UserService userService;
     private final ItemService itemService;
+    private final BookingAvailabilityEngine availabilityEngine;
+    private final ItemOwnershipChecker ownershipChecker;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     @Lazy
     public BookingServiceImpl(BookingRepository bookingRepository,
                               BookingMapper bookingMapper,
                               UserService userService,
-                              ItemService itemService) {
+                              ItemService itemService,
+                              BookingAvailabilityEngine availabilityEngine,
+                              ItemOwnershipChecker ownershipChecker,
+                              ApplicationEventPublisher eventPublisher) {
         this.repository = bookingRepository;
         this.mapper = bookingMapper;
         this.userService = userService;
         this.itemService = itemService;
+        this.availabilityEngine = availabilityEngine;
+        this.ownershipChecker = ownershipChecker;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -63,28 +89,35 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException("Вещь с ID=" + bookingInputDto.getItemId() +
                     " недоступна для бронирования самим владельцем!");
         }
-        return mapper.toBookingDto(repository.save(booking));
+        return mapper.toBookingDto(availabilityEngine.book(booking, repository::save));
     }
 
     @Override
+    @Transactional
     public BookingDto update(Long bookingId, Long userId, BookUpdateRequestDto bookUpdateRequestDto) {
-        isUserNotFound(userId);
-
-        Booking booking = repository.findById(bookingId)
+        // Строка бронирования заблокирована до конца транзакции: параллельные подтверждение и отмена
+        // выполняются по очереди, и вторая видит уже принятое решение
+        Booking booking = repository.findByIdForUpdate(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование с ID=" + bookingId + " не найдено!"));
 
-        isGetEnd(bookingId);
+        boolean isBooker = booking.getBooker().getId().equals(userId);
+        boolean isOwner = booking.getItem().getOwner().getId().equals(userId);
+        if (!isBooker && !isOwner) {
+            isUserNotFound(userId);
+        }
+
+        if (booking.getEnd().isBefore(LocalDateTime.now())) {
+            throw new ValidationException("Время бронирования уже истекло!");
+        }
 
-        if (booking.getBooker().getId().equals(userId)) {
+        if (isBooker) {
             if (!bookUpdateRequestDto.getApproved()) {
                 booking.setStatus(Status.CANCELED);
                 log.info("Пользователь с ID={} отменил бронирование с ID={}", userId, bookingId);
             } else {
                 throw new NotFoundException("Подтвердить бронирование может только владелец вещи!");
             }
-        } else if ((itemService.getItemsByOwner(userId).stream()
-                .anyMatch(i -> i.getId().equals(booking.getItem().getId())) &&
-                (!booking.getStatus().equals(Status.CANCELED)))) {
+        } else if (isOwner && !booking.getStatus().equals(Status.CANCELED)) {
             if (!booking.getStatus().equals(Status.WAITING)) {
                 throw new ValidationException("Решение по бронированию уже принято!");
             }
@@ -103,7 +136,19 @@ public class BookingServiceImpl implements BookingService {
             }
         }
 
-        return mapper.toBookingDto(repository.save(booking));
+        try {
+            // Сущность управляемая: flush выполняет один UPDATE с проверкой версии
+            repository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ValidationException("Бронирование с ID=" + bookingId + " было изменено параллельно, " +
+                    "повторите запрос");
+        }
+        if (!BookingAvailabilityEngine.OCCUPYING_STATUSES.contains(booking.getStatus())) {
+            // Занятость вещи сбрасывается после коммита, см. BookingAvailabilityEngine.onBookingReleased
+            eventPublisher.publishEvent(new BookingReleasedEvent(booking.getItem().getId(), booking.getId()));
+        }
+        // Ответ, как и раньше, содержит отзывы о вещи: один запрос по id вещи
+        return mapper.toBookingDto(booking);
     }
 
     @Override
@@ -113,8 +158,8 @@ public class BookingServiceImpl implements BookingService {
 
         Booking booking = repository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование с ID=" + bookingId + " не найдено!"));
-        if (booking.getBooker().getId().equals(userId) || itemService.getItemsByOwner(userId).stream()
-                .anyMatch(i -> i.getId().equals(booking.getItem().getId()))) {
+        if (booking.getBooker().getId().equals(userId)
+                || ownershipChecker.isOwner(userId, booking.getItem().getId())) {
             return mapper.toBookingDto(booking);
         } else {
             throw new NotFoundException("Посмотреть данные бронирования может только владелец вещи" +
@@ -122,53 +167,28 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getBookings(String state, Long userId) {
-        if (userService.getUserById(userId) == null) {
-            throw new NotFoundException("Пользователь не найден");
-        }
+        return findAll(BookingQuery.Role.BOOKER, state, userId);
+    }
 
-        BookingState bookingState = BookingState.from(state);
-        List<Booking> bookings;
-        Sort sortByStartDesc = Sort.by(Sort.Direction.DESC, "start");
-
-        bookings = switch (bookingState) {
-            case ALL -> repository.findByBookerId(userId, sortByStartDesc);
-            case CURRENT -> repository.findActiveBookings(userId, LocalDateTime.now(),
-                    LocalDateTime.now(), sortByStartDesc);
-            case PAST -> repository.findPastBookings(userId, LocalDateTime.now(), sortByStartDesc);
-            case FUTURE -> repository.findFutureBookings(userId, LocalDateTime.now(), sortByStartDesc);
-            case WAITING -> repository.findByBookerAndStatus(userId, Status.WAITING, sortByStartDesc);
-            case REJECTED -> repository.findByBookerAndStatus(userId, Status.REJECTED, sortByStartDesc);
-        };
-
-        return bookings.stream()
-                .map(mapper::toBookingDto)
-                .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPageDto getBookings(String state, Long userId, String cursor, Integer size) {
+        return findPage(BookingQuery.Role.BOOKER, state, userId, cursor, size);
     }
 
+    @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getBookingsOwner(String state, Long userId) {
-        if (userService.getUserById(userId) == null) {
-            throw new NotFoundException("Пользователь не найден");
-        }
+        return findAll(BookingQuery.Role.OWNER, state, userId);
+    }
 
-        BookingState bookingState = BookingState.from(state);
-        List<Booking> bookings;
-        Sort sortByStartDesc = Sort.by(Sort.Direction.DESC, "start");
-
-        bookings = switch (bookingState) {
-            case ALL -> repository.findByOwner(userId, sortByStartDesc);
-            case CURRENT -> repository.findOwnerActiveBookings(userId, LocalDateTime.now(),
-                    LocalDateTime.now(), sortByStartDesc);
-            case PAST -> repository.findOwnerPastBookings(userId, LocalDateTime.now(), sortByStartDesc);
-            case FUTURE -> repository.findOwnerFutureBookings(userId, LocalDateTime.now(),
-                    sortByStartDesc);
-            case WAITING -> repository.findOwnerBookingsByStatus(userId, Status.WAITING, sortByStartDesc);
-            case REJECTED -> repository.findOwnerBookingsByStatus(userId, Status.REJECTED, sortByStartDesc);
-        };
-
-        return bookings.stream()
-                .map(mapper::toBookingDto)
-                .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPageDto getBookingsOwner(String state, Long userId, String cursor, Integer size) {
+        return findPage(BookingQuery.Role.OWNER, state, userId, cursor, size);
     }
 
     @Override
@@ -184,23 +204,83 @@ public class BookingServiceImpl implements BookingService {
         return mapper.toBookingShortDto(repository.findNextBookingAfterEnd(itemId, LocalDateTime.now()));
     }
 
+    @Override
+    public Map<Long, BookingNeighboursDto> getBookingNeighbours(Collection<Long> itemIds) {
+        Map<Long, BookingNeighboursDto> neighbours = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return neighbours;
+        }
+
+        for (BookingNeighbour neighbour : repository.findApprovedNeighbours(itemIds, LocalDateTime.now())) {
+            BookingNeighboursDto dto = neighbours.computeIfAbsent(neighbour.getItemId(),
+                    id -> new BookingNeighboursDto());
+            if (BookingNeighbour.LAST.equals(neighbour.getKind())) {
+                dto.setLastBooking(mapper.toBookingShortDto(neighbour));
+            } else {
+                dto.setNextBooking(mapper.toBookingShortDto(neighbour));
+            }
+        }
+        return neighbours;
+    }
+
     @Override
     public Booking getBookingWithUserBookedItem(Long itemId, Long userId) {
 
         return repository.findLastBookingByUserAndStatus(itemId, userId, LocalDateTime.now(), Status.APPROVED);
     }
 
-    public void isGetEnd(Long bookingId) {
-        Booking booking = repository.findById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Бронирование с ID=" + bookingId + " не найдено!"));
-        if (booking.getEnd().isBefore(LocalDateTime.now())) {
-            throw new ValidationException("Время бронирования уже истекло!");
+    public void isUserNotFound(Long userId) {
+        if (userService.getUserById(userId) == null) {
+            throw new CustomUserNotFoundException("Пользователь не найден");
         }
     }
 
-    public void isUserNotFound(Long userId) {
+    // Весь список без страниц — для внутренних вызовов; HTTP-контроллер читает бронирования страницами
+    private List<BookingDto> findAll(BookingQuery.Role role, String state, Long userId) {
+        checkUserExists(userId);
+        BookingQuery query = BookingQuery.builder()
+                .role(role)
+                .userId(userId)
+                .state(BookingState.from(state))
+                .now(LocalDateTime.now())
+                .build();
+        return repository.find(query).stream()
+                .map(mapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    private BookingPageDto findPage(BookingQuery.Role role, String state, Long userId, String cursor, Integer size) {
+        checkUserExists(userId);
+        if (size == null || size <= 0) {
+            throw new ValidationException("Размер страницы должен быть положительным");
+        }
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+
+        BookingQuery query = BookingQuery.builder()
+                .role(role)
+                .userId(userId)
+                .state(BookingState.from(state))
+                .now(LocalDateTime.now())
+                .cursor(BookingCursor.decode(cursor))
+                // Запрашиваем на одну запись больше, чтобы понять, есть ли следующая страница
+                .limit(pageSize + 1)
+                .build();
+
+        return toBookingPage(repository.find(query), pageSize);
+    }
+
+    private void checkUserExists(Long userId) {
         if (userService.getUserById(userId) == null) {
-            throw new CustomUserNotFoundException("Пользователь не найден");
+            throw new NotFoundException("Пользователь не найден");
         }
     }
-}
\ No newline at end of file
+
+    private BookingPageDto toBookingPage(List<BookingRow> rows, int size) {
+        List<BookingDto> page = rows.stream()
+                .limit(size)
+                .map(mapper::toBookingDto)
+                .collect(Collectors.toList());
+        String nextCursor = rows.size() > size ? BookingCursor.after(page.get(page.size() - 1)).encode() : null;
+        return new BookingPageDto(page, nextCursor);
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Кэши Spring (spring.cache.*) строятся на Caffeine как L1 и дополняются общим уровнем {@link CacheTier}.
+ */
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfiguration {
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties properties, CacheTier tier) {
+        CaffeineCacheManager local = new CaffeineCacheManager();
+        if (properties.getCaffeine().getSpec() != null) {
+            local.setCacheSpecification(properties.getCaffeine().getSpec());
+        }
+        local.setCacheNames(properties.getCacheNames());
+        return new TwoLevelCacheManager(local, tier);
+    }
+
+    /**
+     * Метрики cache.gets и cache.evictions снимаются с локального уровня.
+     */
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return (cache, tags) -> cache.getLocal() instanceof CaffeineCache caffeine
+                ? new CaffeineCacheMetrics<>(caffeine.getNativeCache(), cache.getName(), tags)
+                : null;
+    }
+}
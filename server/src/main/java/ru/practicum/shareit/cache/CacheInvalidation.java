@@ -0,0 +1,10 @@
+package ru.practicum.shareit.cache;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Сообщение о сбросе записи кэша; key == null — сброс всего кэша.
+ */
+public record CacheInvalidation(String cacheName, Object key, UUID origin) implements Serializable {
+}
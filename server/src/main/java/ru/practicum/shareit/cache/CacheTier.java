@@ -0,0 +1,46 @@
+package ru.practicum.shareit.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Общий для экземпляров сервера уровень кэшей (L2) и рассылка сбросов локальных кэшей (L1).
+ * Пишут в него читатели после загрузки из базы; изменяющий код только сбрасывает запись,
+ * поэтому потерянная запись в L2 не делает данные устаревшими дольше TTL уровня.
+ * Читатель запоминает {@link #generation} ключа до чтения базы и пишет через {@link #putIfCurrent}:
+ * если между чтением и записью пришел сброс, прочитанное до коммита значение в уровень не попадет.
+ * Реализация выбирается свойством shareit.cache.l2.
+ */
+public interface CacheTier {
+
+    /**
+     * Значение из общего уровня или null.
+     */
+    Object get(String cacheName, Object key);
+
+    void put(String cacheName, Object key, Object value);
+
+    /**
+     * Поколение ключа: меняется при каждом сбросе записи.
+     */
+    long generation(String cacheName, Object key);
+
+    /**
+     * Записывает значение, только если с момента чтения {@code generation} ключ не сбрасывался.
+     */
+    void putIfCurrent(String cacheName, Object key, Object value, long generation);
+
+    /**
+     * Удаляет запись из общего уровня и просит остальные экземпляры сбросить ее в L1.
+     */
+    void invalidate(String cacheName, Object key);
+
+    /**
+     * Удаляет все записи кэша из общего уровня и просит остальные экземпляры очистить L1.
+     */
+    void clear(String cacheName);
+
+    /**
+     * Подписка L1 на сбросы, пришедшие от других экземпляров. Ключ null означает очистку всего кэша.
+     */
+    void onRemoteInvalidation(String cacheName, Consumer<Object> listener);
+}
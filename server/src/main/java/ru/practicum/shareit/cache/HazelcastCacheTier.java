@@ -0,0 +1,157 @@
+package ru.practicum.shareit.cache;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.IMap;
+import com.hazelcast.topic.ITopic;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Общий уровень на встроенном узле Hazelcast: каждый экземпляр сервера — член кластера,
+ * записи хранятся в распределенных картах, сбросы L1 рассылаются через топик.
+ * Значения должны быть Serializable. Сброс и условная запись выполняются на владельце ключа
+ * через {@link EntryProcessor}, поэтому проверка поколения и запись атомарны.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.cache.l2", havingValue = "hazelcast")
+public class HazelcastCacheTier implements CacheTier {
+
+    static final String MAP_PREFIX = "shareit.cache.";
+    static final String INVALIDATION_TOPIC = "shareit.cache.invalidation";
+
+    private final HazelcastInstance hazelcast;
+    private final ITopic<CacheInvalidation> invalidations;
+    private final UUID localMember;
+    private final Map<String, List<Consumer<Object>>> listeners = new ConcurrentHashMap<>();
+
+    public HazelcastCacheTier(@Value("${shareit.cache.hazelcast.cluster-name}") String clusterName,
+                              @Value("${shareit.cache.hazelcast.members}") List<String> members,
+                              @Value("${shareit.cache.hazelcast.port}") int port,
+                              @Value("${shareit.cache.hazelcast.ttl}") Duration ttl) {
+        this.hazelcast = Hazelcast.newHazelcastInstance(config(clusterName, members, port, ttl));
+        this.localMember = hazelcast.getCluster().getLocalMember().getUuid();
+        this.invalidations = hazelcast.getTopic(INVALIDATION_TOPIC);
+        this.invalidations.addMessageListener(message -> onInvalidation(message.getMessageObject()));
+        log.info("Узел общего кэша {} подключен к кластеру {}", localMember, clusterName);
+    }
+
+    @Override
+    public Object get(String cacheName, Object key) {
+        TierEntry entry = map(cacheName).get(key);
+        return entry != null ? entry.value() : null;
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value) {
+        map(cacheName).executeOnKey(key, new Put(value));
+    }
+
+    @Override
+    public long generation(String cacheName, Object key) {
+        TierEntry entry = map(cacheName).get(key);
+        return entry != null ? entry.generation() : 0;
+    }
+
+    @Override
+    public void putIfCurrent(String cacheName, Object key, Object value, long generation) {
+        map(cacheName).executeOnKey(key, new PutIfCurrent(value, generation));
+    }
+
+    @Override
+    public void invalidate(String cacheName, Object key) {
+        map(cacheName).executeOnKey(key, new Invalidate());
+        invalidations.publish(new CacheInvalidation(cacheName, key, localMember));
+    }
+
+    @Override
+    public void clear(String cacheName) {
+        map(cacheName).executeOnEntries(new Invalidate());
+        invalidations.publish(new CacheInvalidation(cacheName, null, localMember));
+    }
+
+    @Override
+    public void onRemoteInvalidation(String cacheName, Consumer<Object> listener) {
+        listeners.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hazelcast.shutdown();
+    }
+
+    private IMap<Object, TierEntry> map(String cacheName) {
+        return hazelcast.getMap(MAP_PREFIX + cacheName);
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        if (localMember.equals(invalidation.origin())) {
+            return;
+        }
+        for (Consumer<Object> listener : listeners.getOrDefault(invalidation.cacheName(), List.of())) {
+            listener.accept(invalidation.key());
+        }
+    }
+
+    private static Config config(String clusterName, List<String> members, int port, Duration ttl) {
+        Config config = new Config();
+        config.setClusterName(clusterName);
+        config.setProperty("hazelcast.logging.type", "slf4j");
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        config.getNetworkConfig().setPort(port).setPortAutoIncrement(true);
+
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getAutoDetectionConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).setMembers(members);
+
+        config.addMapConfig(new MapConfig(MAP_PREFIX + "*").setTimeToLiveSeconds((int) ttl.toSeconds()));
+        return config;
+    }
+
+    private static long generationOf(Map.Entry<Object, TierEntry> entry) {
+        return entry.getValue() != null ? entry.getValue().generation() : 0;
+    }
+
+    private record Put(Object value) implements EntryProcessor<Object, TierEntry, Void> {
+        @Override
+        public Void process(Map.Entry<Object, TierEntry> entry) {
+            entry.setValue(new TierEntry(generationOf(entry), value));
+            return null;
+        }
+    }
+
+    private record PutIfCurrent(Object value, long generation) implements EntryProcessor<Object, TierEntry, Void> {
+        @Override
+        public Void process(Map.Entry<Object, TierEntry> entry) {
+            if (generationOf(entry) == generation) {
+                entry.setValue(new TierEntry(generation, value));
+            }
+            return null;
+        }
+    }
+
+    private record Invalidate() implements EntryProcessor<Object, TierEntry, Void> {
+        @Override
+        public Void process(Map.Entry<Object, TierEntry> entry) {
+            entry.setValue(new TierEntry(generationOf(entry) + 1, null));
+            return null;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * Один экземпляр сервера: общего уровня нет, кэши живут только в памяти узла.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.cache.l2", havingValue = "local", matchIfMissing = true)
+public class LocalCacheTier implements CacheTier {
+
+    @Override
+    public Object get(String cacheName, Object key) {
+        return null;
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value) {
+    }
+
+    @Override
+    public long generation(String cacheName, Object key) {
+        return 0;
+    }
+
+    @Override
+    public void putIfCurrent(String cacheName, Object key, Object value, long generation) {
+    }
+
+    @Override
+    public void invalidate(String cacheName, Object key) {
+    }
+
+    @Override
+    public void clear(String cacheName) {
+    }
+
+    @Override
+    public void onRemoteInvalidation(String cacheName, Consumer<Object> listener) {
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.cache.ItemCardCache;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+/**
+ * Сбросы пользователей и карточек вещей, пришедшие от других экземпляров сервера, удаляют те же
+ * сущности из кэша второго уровня Hibernate, который у каждого экземпляра свой.
+ */
+@Component
+public class SecondLevelCacheInvalidation {
+
+    public SecondLevelCacheInvalidation(CacheTier tier, EntityManagerFactory entityManagerFactory) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        tier.onRemoteInvalidation(UserServiceImpl.USERS_CACHE, id -> evict(cache, User.class, id));
+        tier.onRemoteInvalidation(ItemCardCache.CACHE_NAME, id -> evict(cache, Item.class, id));
+    }
+
+    private static void evict(Cache cache, Class<?> entity, Object id) {
+        if (id == null) {
+            cache.evictEntityData(entity);
+        } else {
+            cache.evictEntityData(entity, id);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.cache;
+
+import java.io.Serializable;
+
+/**
+ * Запись общего уровня: значение и поколение ключа. Сброс увеличивает поколение и оставляет value == null,
+ * поэтому читатель, начавший загрузку до сброса, свое значение уже не запишет.
+ */
+record TierEntry(long generation, Object value) implements Serializable {
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Кэш Spring из локального уровня узла (L1) и общего уровня {@link CacheTier} (L2).
+ * Промах L1 сначала ищет значение в L2, и только потом вызывает загрузку.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final Cache local;
+    private final CacheTier tier;
+
+    public TwoLevelCache(Cache local, CacheTier tier) {
+        this.local = local;
+        this.tier = tier;
+        tier.onRemoteInvalidation(local.getName(), key -> {
+            if (key == null) {
+                local.clear();
+            } else {
+                local.evict(key);
+            }
+        });
+    }
+
+    public Cache getLocal() {
+        return local;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.get(key);
+        if (value != null) {
+            return value;
+        }
+        Object shared = tier.get(getName(), key);
+        if (shared == null) {
+            return null;
+        }
+        local.put(key, shared);
+        return new SimpleValueWrapper(shared);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        Object result = value != null ? value.get() : null;
+        if (result != null && type != null && !type.isInstance(result)) {
+            throw new IllegalStateException("Значение кэша " + getName() + " не является " + type.getName());
+        }
+        return (T) result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return local.get(key, () -> {
+            Object shared = tier.get(getName(), key);
+            if (shared != null) {
+                return (T) shared;
+            }
+            long generation = tier.generation(getName(), key);
+            T value = valueLoader.call();
+            if (value != null) {
+                tier.putIfCurrent(getName(), key, value, generation);
+            }
+            return value;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        local.put(key, value);
+        if (value != null) {
+            tier.put(getName(), key, value);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.evict(key);
+        tier.invalidate(getName(), key);
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+        tier.clear(getName());
+    }
+}
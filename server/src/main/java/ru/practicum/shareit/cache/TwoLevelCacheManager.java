@@ -0,0 +1,38 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Оборачивает кэши локального менеджера в {@link TwoLevelCache} поверх общего уровня.
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager local;
+    private final CacheTier tier;
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager local, CacheTier tier) {
+        this.local = local;
+        this.tier = tier;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache localCache = local.getCache(name);
+        return localCache == null ? null : caches.computeIfAbsent(name, n -> new TwoLevelCache(localCache, tier));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return local.getCacheNames();
+    }
+}
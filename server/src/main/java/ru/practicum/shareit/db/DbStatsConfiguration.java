@@ -0,0 +1,52 @@
+package ru.practicum.shareit.db;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Пул соединений оборачивается в datasource-proxy: каждое выражение и чтение строк проходит через
+ * {@link DbStatsListener}. Сам пул (и его метрики hikaricp.*) остается прежним бином внутри обертки.
+ * Счетчики собираются по HTTP-запросам в {@link DbStatsFilter}.
+ */
+@Configuration
+public class DbStatsConfiguration {
+
+    @Bean
+    public static BeanPostProcessor dbStatsDataSourceProxy(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            ObjectProvider<Tracer> tracer,
+            @Value("${shareit.db-stats.slow-query-threshold}") Duration slowQueryThreshold,
+            @Value("${shareit.db-stats.explain-slow-queries}") boolean explain) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    DbStatsListener listener = new DbStatsListener(meterRegistry, tracer, slowQueryThreshold,
+                            explain);
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(listener)
+                            .methodListener(listener)
+                            .proxyResultSet()
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public DbStatsFilter dbStatsFilter(MeterRegistry meterRegistry,
+                                       @Value("${shareit.db-stats.headers}") boolean headers) {
+        return new DbStatsFilter(meterRegistry, headers);
+    }
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.db;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Считает работу с базой на каждый HTTP-запрос и записывает ее в метрики shareit.db.request.statements,
+ * shareit.db.request.rows и shareit.db.request.time с тегами method и uri (шаблон обработчика).
+ * <p>
+ * При shareit.db-stats.headers=true ответ получает заголовки X-Db-Statements, X-Db-Rows и X-Db-Time (мс).
+ * Заголовки ставятся перед первой записью тела, поэтому у потоковой выгрузки они покрывают только
+ * работу до начала выгрузки; метрики всегда учитывают запрос целиком.
+ */
+public class DbStatsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Db-Statements";
+    public static final String ROWS_HEADER = "X-Db-Rows";
+    public static final String TIME_HEADER = "X-Db-Time";
+
+    public static final String STATEMENTS_METRIC = "shareit.db.request.statements";
+    public static final String ROWS_METRIC = "shareit.db.request.rows";
+    public static final String TIME_METRIC = "shareit.db.request.time";
+
+    private final MeterRegistry registry;
+    private final boolean headers;
+
+    public DbStatsFilter(MeterRegistry registry, boolean headers) {
+        this.registry = registry;
+        this.headers = headers;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestDbStats stats = RequestDbStats.begin();
+        request.setAttribute(RequestDbStats.ATTRIBUTE, stats);
+        try {
+            if (headers) {
+                DbStatsHeadersResponse wrapped = new DbStatsHeadersResponse(response, stats);
+                chain.doFilter(request, wrapped);
+                // Ответ без тела
+                wrapped.writeHeaders();
+            } else {
+                chain.doFilter(request, response);
+            }
+        } finally {
+            RequestDbStats.end();
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestDbStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of(
+                "method", request.getMethod(),
+                "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+        DistributionSummary.builder(STATEMENTS_METRIC)
+                .description("Число SQL-выражений на запрос")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(100.0)
+                .register(registry)
+                .record(stats.getStatements());
+        DistributionSummary.builder(ROWS_METRIC)
+                .description("Число прочитанных из базы строк на запрос")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(10000.0)
+                .register(registry)
+                .record(stats.getRows());
+        Timer.builder(TIME_METRIC)
+                .description("Время выполнения SQL-выражений на запрос")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(Duration.ofNanos(stats.getNanos()));
+    }
+
+    /**
+     * Дописывает заголовки со счетчиками, пока ответ еще не зафиксирован: перед первой записью тела,
+     * отправкой ошибки или переадресацией, а у ответа без тела — после обработчика.
+     */
+    private static final class DbStatsHeadersResponse extends HttpServletResponseWrapper {
+
+        private final RequestDbStats stats;
+        private boolean written;
+
+        DbStatsHeadersResponse(HttpServletResponse response, RequestDbStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+
+        private void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+            setHeader(ROWS_HEADER, String.valueOf(stats.getRows()));
+            setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3f", stats.getTimeMillis()));
+        }
+    }
+}
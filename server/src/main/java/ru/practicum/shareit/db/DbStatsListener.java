@@ -0,0 +1,180 @@
+package ru.practicum.shareit.db;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Слушатель datasource-proxy: добавляет выполненные выражения, их время и прочитанные строки
+ * (вызовы ResultSet.next) к счетчикам текущего запроса и пишет в журнал выражения дольше порога —
+ * с параметрами и планом, который получает EXPLAIN на соединении самого выражения: второе соединение из пула
+ * под нагрузкой, когда медленные запросы и появляются, ждало бы освобождения пула вместе со всеми.
+ * <p>
+ * Внутри трассы каждое выражение получает дочерний спан «SQL» с текстом выражения в теге db.statement.
+ * <p>
+ * Пакет выражений (executeBatch) считается одним выражением: это одно обращение к базе.
+ */
+@Slf4j
+public class DbStatsListener implements QueryExecutionListener, MethodExecutionListener {
+
+    public static final String SLOW_QUERY_METRIC = "shareit.db.slow.queries";
+
+    private static final String STARTED = "shareit.started";
+    private static final String SPAN = "shareit.span";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ObjectProvider<Tracer> tracer;
+    private final long slowQueryNanos;
+    private final boolean explain;
+    private Counter slowQueries;
+
+    public DbStatsListener(ObjectProvider<MeterRegistry> meterRegistry, ObjectProvider<Tracer> tracer,
+                           Duration slowQueryThreshold, boolean explain) {
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+        this.slowQueryNanos = slowQueryThreshold.toNanos();
+        this.explain = explain;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Tracer current = tracer.getIfAvailable();
+        if (current != null && current.currentSpan() != null) {
+            Span span = current.nextSpan().name("SQL");
+            span.tag("db.statement", queryInfoList.size() == 1
+                    ? queryInfoList.get(0).getQuery().strip() : queryInfoList.size() + " выражений");
+            if (execInfo.isBatch()) {
+                span.tag("db.batch.size", execInfo.getBatchSize());
+            }
+            execInfo.addCustomValue(SPAN, span.start());
+        }
+        execInfo.addCustomValue(STARTED, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = System.nanoTime() - execInfo.getCustomValue(STARTED, Long.class);
+        Span span = execInfo.getCustomValue(SPAN, Span.class);
+        if (span != null) {
+            if (execInfo.getThrowable() != null) {
+                span.error(execInfo.getThrowable());
+            }
+            span.end();
+        }
+        RequestDbStats stats = RequestDbStats.current();
+        if (stats != null) {
+            stats.addStatements(execInfo.isBatch() ? 1 : queryInfoList.size(), elapsed);
+        }
+        if (elapsed >= slowQueryNanos) {
+            logSlowQuery(execInfo, queryInfoList, elapsed);
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            RequestDbStats stats = RequestDbStats.current();
+            if (stats != null) {
+                stats.addRow();
+            }
+        }
+    }
+
+    private void logSlowQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList, long elapsed) {
+        countSlowQuery();
+        for (QueryInfo query : queryInfoList) {
+            List<ParameterSetOperation> parameters = query.getParametersList().isEmpty()
+                    ? List.of() : query.getParametersList().get(0);
+            String plan = explain && !execInfo.isBatch() && isSelect(query.getQuery())
+                    ? explain(execInfo, query.getQuery(), parameters) : "не запрашивался";
+            log.warn("Медленный запрос, {} мс: {}{}параметры: {}{}план:{}{}",
+                    Duration.ofNanos(elapsed).toMillis(), query.getQuery().strip(), System.lineSeparator(),
+                    describe(parameters), System.lineSeparator(), System.lineSeparator(), plan);
+        }
+    }
+
+    // ExecutionInfo хранит исходное выражение, поэтому EXPLAIN идет мимо обертки и не попадает в счетчики
+    private String explain(ExecutionInfo execInfo, String query, List<ParameterSetOperation> parameters) {
+        try {
+            Connection connection = execInfo.getStatement().getConnection();
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.strip())) {
+                return explain(statement, parameters);
+            }
+        } catch (SQLException | RuntimeException e) {
+            return "недоступен: " + e.getMessage();
+        }
+    }
+
+    private static String explain(PreparedStatement statement, List<ParameterSetOperation> parameters)
+            throws SQLException {
+        for (ParameterSetOperation parameter : parameters) {
+            Object[] args = parameter.getArgs();
+            if (ParameterSetOperation.isSetNullParameterOperation(parameter)) {
+                statement.setNull((Integer) args[0], (Integer) args[1]);
+            } else if (!ParameterSetOperation.isRegisterOutParameterOperation(parameter)) {
+                statement.setObject((Integer) args[0], args[1]);
+            }
+        }
+        StringJoiner plan = new StringJoiner(System.lineSeparator());
+        try (ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                plan.add(rows.getString(1));
+            }
+        }
+        return plan.toString();
+    }
+
+    private static boolean isSelect(String query) {
+        return query.strip().toLowerCase(Locale.ROOT).startsWith("select");
+    }
+
+    private static String describe(List<ParameterSetOperation> parameters) {
+        StringJoiner described = new StringJoiner(", ", "[", "]");
+        parameters.stream()
+                .filter(parameter -> parameter.getArgs().length > 1 && parameter.getArgs()[0] instanceof Integer)
+                .sorted(Comparator.comparingInt(parameter -> (Integer) parameter.getArgs()[0]))
+                .forEach(parameter -> described.add(parameter.getArgs()[0] + "="
+                        + (ParameterSetOperation.isSetNullParameterOperation(parameter)
+                        ? "null" : parameter.getArgs()[1])));
+        return described.toString();
+    }
+
+    // Реестр метрик создается позже пула соединений, поэтому счетчик регистрируется при первом медленном запросе
+    private void countSlowQuery() {
+        if (slowQueries == null) {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return;
+            }
+            slowQueries = Counter.builder(SLOW_QUERY_METRIC)
+                    .description("Число SQL-выражений дольше shareit.db-stats.slow-query-threshold")
+                    .register(registry);
+        }
+        slowQueries.increment();
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.db;
+
+import lombok.Getter;
+
+/**
+ * Работа с базой в рамках одного HTTP-запроса: число выполненных SQL-выражений, прочитанных строк
+ * и время выполнения. Счетчики привязаны к потоку запроса, запросы из фоновых потоков (обновление
+ * кэшей) в них не попадают.
+ */
+@Getter
+public class RequestDbStats {
+
+    /**
+     * Атрибут запроса, в котором {@link DbStatsFilter} оставляет счетчики — для тестов и обработчиков.
+     */
+    public static final String ATTRIBUTE = RequestDbStats.class.getName();
+
+    private static final ThreadLocal<RequestDbStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long nanos;
+
+    static RequestDbStats begin() {
+        RequestDbStats stats = new RequestDbStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static RequestDbStats current() {
+        return CURRENT.get();
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    void addStatements(int count, long elapsedNanos) {
+        statements += count;
+        nanos += elapsedNanos;
+    }
+
+    void addRow() {
+        rows++;
+    }
+
+    public double getTimeMillis() {
+        return nanos / 1_000_000.0;
+    }
+}
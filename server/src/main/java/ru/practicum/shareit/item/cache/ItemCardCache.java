@@ -0,0 +1,128 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.cache.CacheTier;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSavedEvent;
+import ru.practicum.shareit.item.search.ItemsDeletedEvent;
+import ru.practicum.shareit.user.service.UserUpdatedEvent;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Собранные карточки вещей (вещь, владелец, отзывы) по id вещи.
+ * Одновременные промахи по одному id ждут одну загрузку из базы. Карточка старше мягкого TTL отдается
+ * как есть и перечитывается в фоне, старше жесткого — загружается заново.
+ * Изменения вещи и ее отзывов сбрасывают карточку явно, см. {@link #invalidate(Long)}; сохранение и удаление
+ * вещей — после коммита, иначе промах в окне до коммита снова закэширует и разошлет прежнюю карточку.
+ * Карточка включает владельца, поэтому изменение пользователя сбрасывает карточки всех его вещей.
+ * Промах сначала ищет карточку в общем уровне {@link CacheTier}, фоновое обновление всегда читает базу.
+ */
+@Slf4j
+@Component
+public class ItemCardCache {
+
+    public static final String CACHE_NAME = "itemCards";
+
+    private final ItemRepository itemRepository;
+    private final ItemMapper itemMapper;
+    private final CacheTier tier;
+    private final TransactionTemplate readOnlyTransaction;
+    private final LoadingCache<Long, ItemDto> cards;
+
+    public ItemCardCache(ItemRepository itemRepository,
+                         ItemMapper itemMapper,
+                         CacheTier tier,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${shareit.item-card-cache.maximum-size}") long maximumSize,
+                         @Value("${shareit.item-card-cache.refresh-after}") Duration refreshAfter,
+                         @Value("${shareit.item-card-cache.expire-after}") Duration expireAfter) {
+        this.itemRepository = itemRepository;
+        this.itemMapper = itemMapper;
+        this.tier = tier;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.cards = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterWrite(expireAfter)
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public ItemDto load(Long itemId) {
+                        return tier.get(CACHE_NAME, itemId) instanceof ItemDto shared ? shared : loadAndShare(itemId);
+                    }
+
+                    @Override
+                    public ItemDto reload(Long itemId, ItemDto oldValue) {
+                        return loadAndShare(itemId);
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cards, CACHE_NAME);
+        tier.onRemoteInvalidation(CACHE_NAME, itemId -> {
+            if (itemId == null) {
+                cards.invalidateAll();
+            } else {
+                cards.invalidate((Long) itemId);
+            }
+        });
+    }
+
+    /**
+     * Карточка вещи; если вещи нет, бросает {@link NotFoundException} и ничего не кэширует.
+     */
+    public ItemDto get(Long itemId) {
+        return cards.get(itemId);
+    }
+
+    public void invalidate(Long itemId) {
+        cards.invalidate(itemId);
+        tier.invalidate(CACHE_NAME, itemId);
+    }
+
+    public void invalidateAll(Collection<Long> itemIds) {
+        for (Long itemId : itemIds) {
+            invalidate(itemId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        invalidate(event.getItemId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsDeleted(ItemsDeletedEvent event) {
+        invalidateAll(event.getItemIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        invalidateAll(itemRepository.findIdsByOwnerId(event.getUserId()));
+    }
+
+    private ItemDto loadAndShare(Long itemId) {
+        log.debug("Загрузка карточки вещи с id={}", itemId);
+        long generation = tier.generation(CACHE_NAME, itemId);
+        // Вещь из кэша второго уровня приходит без графа: владелец дочитывается в той же транзакции
+        ItemDto card = readOnlyTransaction.execute(status -> itemMapper.toItemDto(itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь с id " + itemId + " не найдена"))));
+        tier.putIfCurrent(CACHE_NAME, itemId, card, generation);
+        return card;
+    }
+}
@@ -6,13 +6,14 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
-public class CommentDto {
+public class CommentDto implements Serializable {
     private Long id;
     private String text;
     private String authorName;
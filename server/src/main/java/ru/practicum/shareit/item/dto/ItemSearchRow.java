@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.dto;
+
+/**
+ * Поля вещи, которые нужны поисковому индексу.
+ */
+public interface ItemSearchRow {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+}
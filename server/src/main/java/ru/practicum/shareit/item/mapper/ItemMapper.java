@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.mapper;
 
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -10,6 +11,8 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
+import java.util.List;
+
 @Component
 public class ItemMapper {
 
@@ -30,6 +33,15 @@ public class ItemMapper {
     }
 
     public ItemDto toItemDto(Item item) {
+        return toItemDto(item, itemService.getCommentsByItemId(item.getId()));
+    }
+
+    public ItemDto toItemDto(Item item, List<CommentDto> comments) {
+        return toItemDto(item, null, null, comments);
+    }
+
+    public ItemDto toItemDto(Item item, BookingShortDto lastBooking, BookingShortDto nextBooking,
+                             List<CommentDto> comments) {
         return new ItemDto(
                 item.getId(),
                 item.getName(),
@@ -37,9 +49,9 @@ public class ItemMapper {
                 item.getAvailable(),
                 item.getOwner() != null ? userMapper.toUserDto(item.getOwner()) : null,
                 item.getRequestId() != null ? item.getRequestId() : null,
-                null,
-                null,
-                itemService.getCommentsByItemId(item.getId())
+                lastBooking,
+                nextBooking,
+                comments
         );
     }
 
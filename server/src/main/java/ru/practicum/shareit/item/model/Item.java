@@ -4,17 +4,27 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-import org.hibernate.validator.internal.util.stereotypes.Lazy;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.user.model.User;
 
 @Entity
 @Table(name = "items")
+@NamedEntityGraph(name = Item.CARD_GRAPH, attributeNodes = @NamedAttributeNode("owner"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Item.CACHE_REGION)
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
 public class Item {
+
+    public static final String CARD_GRAPH = "Item.card";
+    public static final String CACHE_REGION = "item";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id")
@@ -26,8 +36,9 @@ public class Item {
 
     private Boolean available;
 
-    @Lazy
-    @ManyToOne
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner", referencedColumnName = "id")
     private User owner;
 
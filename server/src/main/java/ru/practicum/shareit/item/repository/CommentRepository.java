@@ -1,10 +1,24 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+
+    @EntityGraph(Comment.LIST_GRAPH)
     List<Comment> findAllByItemId(Long itemId);
+
+    @EntityGraph(Comment.LIST_GRAPH)
+    @Query("""
+           SELECT c FROM Comment c
+           WHERE c.item.id IN :itemIds
+           ORDER BY c.created
+           """)
+    List<Comment> findAllByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
 }
@@ -1,24 +1,77 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemSearchRow;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    @Override
+    @EntityGraph(Item.CARD_GRAPH)
+    Optional<Item> findById(Long id);
+
+    @Override
+    @EntityGraph(Item.CARD_GRAPH)
+    List<Item> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(Item.CARD_GRAPH)
     List<Item> getItemsByOwner(User owner);
 
+    /**
+     * Проверка владения по первичному ключу вещи — без загрузки вещей владельца.
+     */
+    boolean existsByIdAndOwnerId(Long itemId, Long ownerId);
+
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
+
+    @EntityGraph(Item.CARD_GRAPH)
     @Query("""
            SELECT i FROM Item i
            WHERE (LOWER(i.name) LIKE LOWER(CONCAT('%', :search, '%'))
                   OR LOWER(i.description) LIKE LOWER(CONCAT('%', :search, '%')))
              AND i.available = true
+           ORDER BY CASE WHEN LOWER(i.name) LIKE LOWER(CONCAT('%', :search, '%')) THEN 0 ELSE 1 END, i.id
            """)
-    List<Item> getItemsBySearchQuery(@Param("search") String text);
+    List<Item> getItemsBySearchQuery(@Param("search") String text, Pageable pageable);
+
+    @Query(value = """
+           SELECT i.id FROM items i
+           CROSS JOIN websearch_to_tsquery('simple', :text) AS q
+           WHERE i.available
+             AND (i.search_vector @@ q
+                  OR i.name ILIKE '%' || :pattern || '%'
+                  OR i.description ILIKE '%' || :pattern || '%'
+                  OR :text <% i.name)
+           ORDER BY ts_rank(i.search_vector, q) DESC, word_similarity(:text, i.name) DESC, i.id
+           LIMIT :size OFFSET :from
+           """, nativeQuery = true)
+    List<Long> searchRanked(@Param("text") String text,
+                            @Param("pattern") String pattern,
+                            @Param("from") int from,
+                            @Param("size") int size);
 
-    List<Item> findByNameIgnoreCaseAndAvailableTrue(String text);
+    /**
+     * Все доступные вещи для построения поискового индекса. Читать внутри транзакции и закрывать поток.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description FROM Item i WHERE i.available = true")
+    Stream<ItemSearchRow> streamAvailableForSearch();
 }
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemSearchRow;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Поиск по индексу в памяти: подбор, ранжирование и страница считаются без обращения к БД,
+ * из базы по первичному ключу загружаются только вещи найденной страницы.
+ * Индекс строится при старте потоком по таблице items и обновляется после коммита изменений вещей.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index")
+public class IndexItemSearchEngine implements ItemSearchEngine, SmartInitializingSingleton {
+
+    private final ItemSearchIndex index = new ItemSearchIndex();
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public IndexItemSearchEngine(ItemRepository itemRepository, PlatformTransactionManager transactionManager) {
+        this.itemRepository = itemRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        index.clear();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ItemSearchRow> rows = itemRepository.streamAvailableForSearch()) {
+                rows.forEach(row -> index.put(row.getId(), row.getName(), row.getDescription(), true));
+            }
+        });
+        log.info("Поисковый индекс вещей построен, вещей в индексе: {}", index.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        index.put(event.getItemId(), event.getName(), event.getDescription(), event.isAvailable());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsDeleted(ItemsDeletedEvent event) {
+        event.getItemIds().forEach(index::remove);
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        long[] ids = index.search(text, from, size);
+        if (ids.length == 0) {
+            return new ArrayList<>();
+        }
+
+        List<Long> boxedIds = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            boxedIds.add(id);
+        }
+        return ItemSearchEngine.inOrder(boxedIds, itemRepository.findAllById(boxedIds));
+    }
+}
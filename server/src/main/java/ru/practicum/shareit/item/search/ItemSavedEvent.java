@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Вещь создана или изменена. Снимок полей, по которым ищут, снят в момент сохранения.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ItemSavedEvent {
+    private final long itemId;
+    private final String name;
+    private final String description;
+    private final boolean available;
+
+    public static ItemSavedEvent of(Item item) {
+        return new ItemSavedEvent(item.getId(), item.getName(), item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable()));
+    }
+}
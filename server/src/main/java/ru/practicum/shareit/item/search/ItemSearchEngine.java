@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Поиск доступных вещей по названию и описанию.
+ * Реализация выбирается свойством shareit.search.engine.
+ */
+public interface ItemSearchEngine {
+
+    /**
+     * @return вещи в порядке убывания релевантности, начиная с позиции from, не больше size штук
+     */
+    List<Item> search(String text, int from, int size);
+
+    /**
+     * Раскладывает загруженные вещи в порядке найденных id, пропуская удалённые.
+     */
+    static List<Item> inOrder(List<Long> ids, Iterable<Item> items) {
+        Map<Long, Item> itemsById = new HashMap<>();
+        items.forEach(item -> itemsById.put(item.getId(), item));
+
+        List<Item> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Item item = itemsById.get(id);
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,234 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс по названию и описанию доступных вещей.
+ * Термы — слова в нижнем регистре, слово запроса совпадает с термами, которые с него начинаются.
+ * Вещь подходит, если в ней есть все слова запроса; совпадения в названии идут раньше, внутри группы — по id.
+ */
+public class ItemSearchIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final NavigableMap<String, LongPostings> nameTerms = new TreeMap<>();
+    private final NavigableMap<String, LongPostings> descriptionTerms = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Добавляет или заменяет вещь. Недоступная вещь из индекса убирается.
+     */
+    public void put(long itemId, String name, String description, boolean available) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(itemId);
+            if (!available) {
+                return;
+            }
+            Document document = new Document(tokenize(name), tokenize(description));
+            addPostings(nameTerms, document.nameTerms, itemId);
+            addPostings(descriptionTerms, document.descriptionTerms, itemId);
+            documents.put(itemId, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            nameTerms.clear();
+            descriptionTerms.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return id вещей в порядке релевантности, начиная с позиции from, не больше size штук
+     */
+    public long[] search(String text, int from, int size) {
+        String[] words = tokenize(text);
+        if (words.length == 0 || size <= 0) {
+            return EMPTY;
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] nameHits = null;
+            long[] allHits = null;
+            for (String word : words) {
+                long[] inName = union(nameTerms.subMap(word, true, word + Character.MAX_VALUE, true), null);
+                long[] inAny = union(descriptionTerms.subMap(word, true, word + Character.MAX_VALUE, true), inName);
+                nameHits = nameHits == null ? inName : intersect(nameHits, inName);
+                allHits = allHits == null ? inAny : intersect(allHits, inAny);
+                if (allHits.length == 0) {
+                    return EMPTY;
+                }
+            }
+            return page(nameHits, allHits, from, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return new String[0];
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private void removeDocument(long itemId) {
+        Document document = documents.remove(itemId);
+        if (document != null) {
+            removePostings(nameTerms, document.nameTerms, itemId);
+            removePostings(descriptionTerms, document.descriptionTerms, itemId);
+        }
+    }
+
+    private static void addPostings(Map<String, LongPostings> terms, String[] words, long itemId) {
+        for (String word : words) {
+            terms.computeIfAbsent(word, w -> new LongPostings()).add(itemId);
+        }
+    }
+
+    private static void removePostings(Map<String, LongPostings> terms, String[] words, long itemId) {
+        for (String word : words) {
+            LongPostings postings = terms.get(word);
+            if (postings != null && postings.remove(itemId) && postings.isEmpty()) {
+                terms.remove(word);
+            }
+        }
+    }
+
+    /**
+     * Объединяет списки термов и уже найденные id в один отсортированный массив без повторов.
+     */
+    private static long[] union(Map<String, LongPostings> terms, long[] extra) {
+        if (terms.isEmpty()) {
+            return extra == null ? EMPTY : extra;
+        }
+        List<LongPostings> lists = new ArrayList<>(terms.values());
+        int total = extra == null ? 0 : extra.length;
+        for (LongPostings postings : lists) {
+            total += postings.size();
+        }
+        long[] result = new long[total];
+        int n = 0;
+        for (LongPostings postings : lists) {
+            for (int i = 0; i < postings.size(); i++) {
+                result[n++] = postings.get(i);
+            }
+        }
+        if (extra != null) {
+            System.arraycopy(extra, 0, result, n, extra.length);
+            n += extra.length;
+        }
+        if (lists.size() == 1 && extra == null) {
+            return result;
+        }
+        Arrays.sort(result, 0, n);
+        int unique = 0;
+        for (int i = 0; i < n; i++) {
+            if (unique == 0 || result[unique - 1] != result[i]) {
+                result[unique++] = result[i];
+            }
+        }
+        return unique == result.length ? result : Arrays.copyOf(result, unique);
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[n++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Сначала совпадения в названии, затем остальные; nameHits — подмножество allHits.
+     */
+    private static long[] page(long[] nameHits, long[] allHits, int from, int size) {
+        if (from >= allHits.length) {
+            return EMPTY;
+        }
+        long[] result = new long[Math.min(size, allHits.length - from)];
+        int n = 0;
+        int skipped = 0;
+        for (int i = 0; i < nameHits.length && n < result.length; i++) {
+            if (skipped++ >= from) {
+                result[n++] = nameHits[i];
+            }
+        }
+        for (int i = 0; i < allHits.length && n < result.length; i++) {
+            if (Arrays.binarySearch(nameHits, allHits[i]) < 0 && skipped++ >= from) {
+                result[n++] = allHits[i];
+            }
+        }
+        return result;
+    }
+
+    private static final class Document {
+        private final String[] nameTerms;
+        private final String[] descriptionTerms;
+
+        private Document(String[] nameTerms, String[] descriptionTerms) {
+            this.nameTerms = nameTerms;
+            this.descriptionTerms = descriptionTerms;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Вещи удалены.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ItemsDeletedEvent {
+    private final List<Long> itemIds;
+}
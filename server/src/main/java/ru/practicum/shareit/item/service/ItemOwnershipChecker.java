@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+/**
+ * Отвечает на вопрос «владеет ли пользователь вещью» одним запросом EXISTS по первичному ключу.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemOwnershipChecker {
+
+    private final ItemRepository itemRepository;
+
+    public boolean isOwner(Long userId, Long itemId) {
+        if (userId == null || itemId == null) {
+            return false;
+        }
+        return itemRepository.existsByIdAndOwnerId(itemId, userId);
+    }
+}
@@ -1,9 +1,13 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ItemService {
 
@@ -15,6 +19,8 @@ public interface ItemService {
 
     List<ItemDto> getItemsBySearchQuery(String text);
 
+    List<ItemDto> getItemsBySearchQuery(String text, Integer from, Integer size);
+
     void deleteItem(Long itemId, Long ownerId);
 
     void deleteItemsByOwnerId(Long ownerId);
@@ -24,4 +30,8 @@ public interface ItemService {
     CommentDto addComment(CommentDto commentDto, Long itemId, Long userId);
 
     List<CommentDto> getCommentsByItemId(Long itemId);
-}
\ No newline at end of file
+
+    Map<Long, List<CommentDto>> getCommentsByItemIds(Collection<Long> itemIds);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+}
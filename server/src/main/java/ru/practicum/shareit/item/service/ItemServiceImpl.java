@@ -2,34 +2,56 @@ package ru.practicum.shareit.item.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityEngine;
+import ru.practicum.shareit.booking.dto.BookingNeighboursDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.CustomUserNotFoundException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.cache.ItemCardCache;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSavedEvent;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemsDeletedEvent;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 @Slf4j
 @Service
 public class ItemServiceImpl implements ItemService {
 
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int DEFAULT_AVAILABILITY_DAYS = 30;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
@@ -37,6 +59,10 @@ public class ItemServiceImpl implements ItemService {
     private final UserService userService;
     private final BookingService bookingService;
     private final UserMapper userMapper;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingAvailabilityEngine availabilityEngine;
+    private final ItemCardCache itemCardCache;
 
     @Autowired
     @Lazy
@@ -46,7 +72,11 @@ public class ItemServiceImpl implements ItemService {
                            ItemMapper itemMapper,
                            UserService userService,
                            BookingService bookingService,
-                           UserMapper userMapper
+                           UserMapper userMapper,
+                           ItemSearchEngine itemSearchEngine,
+                           ApplicationEventPublisher eventPublisher,
+                           BookingAvailabilityEngine availabilityEngine,
+                           ItemCardCache itemCardCache
     ) {
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
@@ -55,6 +85,10 @@ public class ItemServiceImpl implements ItemService {
         this.userService = userService;
         this.bookingService = bookingService;
         this.userMapper = userMapper;
+        this.itemSearchEngine = itemSearchEngine;
+        this.eventPublisher = eventPublisher;
+        this.availabilityEngine = availabilityEngine;
+        this.itemCardCache = itemCardCache;
     }
 
     @Override
@@ -65,10 +99,16 @@ public class ItemServiceImpl implements ItemService {
 
         itemDto.setOwner(userMapper.toUserDto(user));
 
-        return itemMapper.toItemDto(itemRepository.save(itemMapper.toItem(itemDto, ownerId)));
+        // Маппим собранную сущность с владельцем: результат merge содержит ленивые ссылки
+        Item item = itemMapper.toItem(itemDto, ownerId);
+        itemRepository.save(item);
+        eventPublisher.publishEvent(ItemSavedEvent.of(item));
+
+        return itemMapper.toItemDto(item);
     }
 
     @Override
+    @Transactional
     public ItemDto update(ItemDto itemDto, Long ownerId, Long itemId) {
         if (!userRepository.existsById(ownerId)) {
             throw new NotFoundException("Пользователь с id=" + ownerId + " не найден");
@@ -89,24 +129,33 @@ public class ItemServiceImpl implements ItemService {
             oldItem.setAvailable(itemDto.getAvailable());
         }
 
-        return itemMapper.toItemDto(itemRepository.save(itemMapper.toItem(itemDto, itemId)));
+        itemRepository.save(oldItem);
+        // Карточка в кэше и общем уровне сбрасывается после коммита, см. ItemCardCache.onItemSaved
+        eventPublisher.publishEvent(ItemSavedEvent.of(oldItem));
+
+        return itemMapper.toItemDto(oldItem);
     }
 
     @Override
     public List<ItemDto> getItemsByOwner(Long ownerId) {
-        return itemRepository.getItemsByOwner(userRepository.findById(ownerId).orElseThrow())
-                .stream()
-                .map(itemMapper::toItemDto)
-                .collect(toList());
+        List<Item> items = itemRepository.getItemsByOwner(userRepository.findById(ownerId).orElseThrow());
+        return toItemDtos(items, bookingService.getBookingNeighbours(items.stream().map(Item::getId).collect(toSet())));
     }
 
     @Override
     public List<ItemDto> getItemsBySearchQuery(String text) {
-        text = text.toUpperCase();
-        return itemRepository.findByNameIgnoreCaseAndAvailableTrue(text)
-                .stream()
-                .map(itemMapper::toItemDto)
-                .collect(toList());
+        return getItemsBySearchQuery(text, 0, DEFAULT_PAGE_SIZE);
+    }
+
+    @Override
+    public List<ItemDto> getItemsBySearchQuery(String text, Integer from, Integer size) {
+        if (from == null || from < 0 || size == null || size <= 0) {
+            throw new ValidationException("Некорректные параметры страницы: from=" + from + ", size=" + size);
+        }
+        if (text == null || text.isBlank()) {
+            return new ArrayList<>();
+        }
+        return toItemDtos(itemSearchEngine.search(text.trim(), from, Math.min(size, MAX_PAGE_SIZE)), Map.of());
     }
 
     @Override
@@ -117,6 +166,7 @@ public class ItemServiceImpl implements ItemService {
 
         if (item.getOwner().getId().equals(ownerId)) {
             itemRepository.deleteById(itemId);
+            eventPublisher.publishEvent(new ItemsDeletedEvent(List.of(itemId)));
         } else {
             throw new NotFoundException("Пользователь с id " + ownerId + " не найден");
         }
@@ -128,13 +178,13 @@ public class ItemServiceImpl implements ItemService {
         for (Item item : items) {
             itemRepository.deleteById(item.getId());
         }
+        List<Long> itemIds = items.stream().map(Item::getId).collect(toList());
+        eventPublisher.publishEvent(new ItemsDeletedEvent(itemIds));
     }
 
     @Override
     public ItemDto getItemById(Long itemId) {
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Вещь с id " + itemId + " не найдена"));
-        return itemMapper.toItemDto(item);
+        return itemCardCache.get(itemId);
     }
 
     @Override
@@ -155,6 +205,7 @@ public class ItemServiceImpl implements ItemService {
             throw new ValidationException("Данный пользователь вещь не бронировал!");
         }
         Comment savedComment = commentRepository.save(comment);
+        itemCardCache.invalidate(itemId);
 
         return itemMapper.toCommentDto(savedComment);
     }
@@ -167,4 +218,73 @@ public class ItemServiceImpl implements ItemService {
                 .map(itemMapper::toCommentDto)
                 .collect(toList());
     }
+
+    @Override
+    public Map<Long, List<CommentDto>> getCommentsByItemIds(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return commentRepository
+                .findAllByItemIdIn(itemIds)
+                .stream()
+                .collect(groupingBy(comment -> comment.getItem().getId(),
+                        mapping(itemMapper::toCommentDto, toList())));
+    }
+
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь с id " + itemId + " не найдена");
+        }
+        LocalDateTime periodStart = (from != null ? from : LocalDateTime.now()).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime periodEnd = (to != null ? to : periodStart.plusDays(DEFAULT_AVAILABILITY_DAYS))
+                .truncatedTo(ChronoUnit.SECONDS);
+        if (!periodStart.isBefore(periodEnd)) {
+            throw new ValidationException("Начало периода должно быть раньше конца: from=" + periodStart
+                    + ", to=" + periodEnd);
+        }
+
+        long start = BookingAvailabilityEngine.toEpochSecond(periodStart);
+        long end = BookingAvailabilityEngine.toEpochSecond(periodEnd);
+        long[] busy = availabilityEngine.busy(itemId, periodStart, periodEnd);
+
+        List<TimeSlotDto> busySlots = new ArrayList<>(busy.length / 2);
+        List<TimeSlotDto> freeSlots = new ArrayList<>(busy.length / 2 + 1);
+        long freeFrom = start;
+        for (int i = 0; i < busy.length; i += 2) {
+            if (busy[i] > freeFrom) {
+                freeSlots.add(toTimeSlot(freeFrom, busy[i]));
+            }
+            busySlots.add(toTimeSlot(busy[i], busy[i + 1]));
+            freeFrom = busy[i + 1];
+        }
+        if (freeFrom < end) {
+            freeSlots.add(toTimeSlot(freeFrom, end));
+        }
+
+        return new ItemAvailabilityDto(itemId, periodStart, periodEnd, busySlots, freeSlots);
+    }
+
+    private static TimeSlotDto toTimeSlot(long start, long end) {
+        return new TimeSlotDto(BookingAvailabilityEngine.fromEpochSecond(start),
+                BookingAvailabilityEngine.fromEpochSecond(end));
+    }
+
+    private List<ItemDto> toItemDtos(List<Item> items, Map<Long, BookingNeighboursDto> bookingNeighbours) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, List<CommentDto>> commentsByItemId = getCommentsByItemIds(
+                items.stream().map(Item::getId).collect(toSet()));
+
+        return items.stream()
+                .map(item -> {
+                    BookingNeighboursDto neighbours = bookingNeighbours
+                            .getOrDefault(item.getId(), new BookingNeighboursDto());
+                    return itemMapper.toItemDto(item, neighbours.getLastBooking(), neighbours.getNextBooking(),
+                            commentsByItemId.getOrDefault(item.getId(), new ArrayList<>()));
+                })
+                .collect(toList());
+    }
 }
@@ -0,0 +1,170 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingQuery;
+import ru.practicum.shareit.user.dto.UserPageDto;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Время, ошибки и размер результата каждого вызова сервисов (BookingService, ItemService, UserService,
+ * RequestService) и репозиториев Spring Data.
+ * <p>
+ * Метрики shareit.service и shareit.repository — таймеры с гистограммой, shareit.service.result.size и
+ * shareit.repository.result.size — распределение числа возвращенных записей. Теги: type (интерфейс),
+ * method, state и role (для выборок бронирований, иначе none), exception (none при успехе).
+ * <p>
+ * Каждый вызов также становится спаном трассировки «Интерфейс.метод» с теми же тегами, вложенным в спан
+ * HTTP-запроса: сервис — репозиторий — SQL-выражения (см. DbStatsListener).
+ */
+@Aspect
+@Component
+public class MethodMetricsAspect {
+
+    public static final String SERVICE_METRIC = "shareit.service";
+    public static final String REPOSITORY_METRIC = "shareit.repository";
+    public static final String NONE = "none";
+
+    private static final String RESULT_SIZE = ".result.size";
+    private static final String PROJECT_PACKAGE = "ru.practicum.shareit";
+
+    private final MeterRegistry registry;
+    private final Tracer tracer;
+    private final Map<Class<?>, String> typeNames = new ConcurrentHashMap<>();
+
+    public MethodMetricsAspect(MeterRegistry registry, ObjectProvider<Tracer> tracer) {
+        this.registry = registry;
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+    }
+
+    @Around("execution(public * ru.practicum.shareit..service.*Service.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(SERVICE_METRIC, "Service", joinPoint);
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(REPOSITORY_METRIC, "Repository", joinPoint);
+    }
+
+    private Object record(String metric, String typeSuffix, ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String type = typeName(joinPoint.getThis().getClass(), typeSuffix);
+        Tags tags = Tags.of(
+                "type", type,
+                "method", signature.getName());
+        tags = tags.and(bookingTags(signature, joinPoint.getArgs()));
+
+        Span span = tracer.nextSpan().name(type + "." + signature.getName());
+        tags.forEach(tag -> span.tag(tag.getKey(), tag.getValue()));
+        Timer.Sample sample = Timer.start(registry);
+        String exception = NONE;
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span.start())) {
+            Object result = joinPoint.proceed();
+            Integer size = resultSize(result);
+            if (size != null) {
+                DistributionSummary.builder(metric + RESULT_SIZE)
+                        .description("Число записей в результате вызова")
+                        .tags(tags)
+                        .publishPercentileHistogram()
+                        .maximumExpectedValue(1000.0)
+                        .register(registry)
+                        .record(size);
+            }
+            return result;
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+            sample.stop(Timer.builder(metric)
+                    .description("Время вызова метода")
+                    .tags(tags)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Состояние и роль выборки бронирований: из {@link BookingQuery} в репозитории, из параметра state
+     * в сервисе. Методы сервиса со словом Owner в имени выбирают бронирования владельца.
+     */
+    private Tags bookingTags(MethodSignature signature, Object[] args) {
+        String state = NONE;
+        String role = NONE;
+        String[] names = signature.getParameterNames();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof BookingQuery query) {
+                state = query.getState().name();
+                role = query.getRole().name();
+            } else if (args[i] instanceof BookingState bookingState) {
+                state = bookingState.name();
+            } else if (names != null && "state".equals(names[i]) && args[i] instanceof String value) {
+                state = knownState(value);
+                role = signature.getName().contains("Owner")
+                        ? BookingQuery.Role.OWNER.name() : BookingQuery.Role.BOOKER.name();
+            }
+        }
+        return Tags.of("state", state, "role", role);
+    }
+
+    // Неизвестные значения из запроса не должны порождать новые серии метрик
+    private static String knownState(String value) {
+        for (BookingState state : BookingState.values()) {
+            if (state.name().equalsIgnoreCase(value)) {
+                return state.name();
+            }
+        }
+        return "UNKNOWN";
+    }
+
+    private static Integer resultSize(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        } else if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        } else if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        } else if (result instanceof BookingPageDto page) {
+            return page.getBookings().size();
+        } else if (result instanceof UserPageDto page) {
+            return page.getUsers().size();
+        }
+        return null;
+    }
+
+    /**
+     * Имя интерфейса проекта, который реализует бин: BookingService, а не BookingServiceImpl или класс прокси.
+     */
+    private String typeName(Class<?> type, String suffix) {
+        return typeNames.computeIfAbsent(type, t -> {
+            for (Class<?> candidate = t; candidate != null; candidate = candidate.getSuperclass()) {
+                for (Class<?> contract : candidate.getInterfaces()) {
+                    if (contract.getName().startsWith(PROJECT_PACKAGE) && contract.getSimpleName().endsWith(suffix)) {
+                        return contract.getSimpleName();
+                    }
+                }
+            }
+            return t.getSimpleName();
+        });
+    }
+}
@@ -1,20 +1,32 @@
 package ru.practicum.shareit.user.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 import ru.practicum.shareit.user.service.UserService;
 
-import java.util.Collection;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @Slf4j
 @RestController
 @RequestMapping("/users")
 public class UserController {
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -27,9 +39,36 @@ public class UserController {
         return userService.updateUser(user, id);
     }
 
+    /**
+     * Все пользователи одним JSON-массивом. Пользователи пишутся в ответ по мере чтения из базы,
+     * поэтому выгрузка не зависит от их числа по памяти.
+     */
     @GetMapping
-    public Collection<UserDto> getUsers() {
-        return userService.getUsers();
+    public void getUsers(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try (SequenceWriter writer = objectMapper.writerFor(UserDto.class)
+                .writeValuesAsArray(response.getOutputStream())) {
+            userService.exportUsers(user -> {
+                try {
+                    writer.write(user);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @GetMapping(params = "size")
+    public ResponseEntity<List<UserDto>> getUsers(@RequestParam(name = "cursor", required = false) Long cursor,
+                                                  @RequestParam(name = "size") Integer size) {
+        log.info("Получен GET-запрос к эндпоинту: '/users' на получение страницы пользователей после ID={}", cursor);
+        UserPageDto page = userService.getUsers(cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR, page.getNextCursor().toString());
+        }
+        return response.body(page.getUsers());
     }
 
     @GetMapping("/{id}")
@@ -5,11 +5,13 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
+
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
-public class UserDto {
+public class UserDto implements Serializable {
     private Long id; // уникальный идентификатор
     private String name; // имя или логин пользователя
     private String email; // почта пользователя
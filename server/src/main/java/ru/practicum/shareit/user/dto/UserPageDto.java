@@ -0,0 +1,18 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPageDto {
+
+    private List<UserDto> users;
+    private Long nextCursor; // id последнего пользователя страницы, null, если страница последняя
+}
@@ -1,8 +1,9 @@
 package ru.practicum.shareit.user.service;
 
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 
-import java.util.Collection;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto createUser(UserDto userDto);
@@ -11,7 +12,12 @@ public interface UserService {
 
     UserDto updateUser(UserDto userDto, Long userId);
 
-    Collection<UserDto> getUsers();
+    UserPageDto getUsers(Long cursor, Integer size);
+
+    /**
+     * Передает всех пользователей по порядку id, не накапливая их в памяти.
+     */
+    void exportUsers(Consumer<UserDto> consumer);
 
     UserDto getUserById(Long userId);
 }
@@ -1,33 +1,52 @@
 package ru.practicum.shareit.user.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.CustomUserNotFoundException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UserAlreadyExistsException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.service.UserService;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 public class UserServiceImpl implements UserService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final String USERS_CACHE = "users";
+    private static final List<String> EMAIL_CONSTRAINTS = List.of("uq_user_email", "uq_users_email_lower");
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public UserServiceImpl(UserRepository userRepository,
-                           UserMapper userMapper) {
+                           UserMapper userMapper,
+                           EntityManager entityManager,
+                           ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -38,26 +57,32 @@ public class UserServiceImpl implements UserService {
             throw new ValidationException("Отсутствует email пользователя");
         }
 
-        if (userRepository.findAll().stream()
-                .anyMatch(user2 -> user2.getEmail().equals(user.getEmail()))) {
-            log.error("email={} уже используется", user.getEmail());
-            throw new UserAlreadyExistsException("email=" + user.getEmail() + " уже используется");
+        if (userRepository.existsByEmail(user.getEmail())) {
+            throw emailInUse(user.getEmail());
         }
 
-        User user1 = userRepository.save(user);
-
-        return userMapper.toUserDto(user1);
+        try {
+            return userMapper.toUserDto(userRepository.save(user));
+        } catch (DataIntegrityViolationException e) {
+            // Параллельная регистрация с тем же email прошла проверку раньше нас
+            if (isEmailViolation(e)) {
+                throw emailInUse(user.getEmail());
+            }
+            throw e;
+        }
     }
 
     @Override
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#userId")
     public void removeUser(Long userId) {
         userRepository.deleteById(userId);
     }
 
     @Override
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#userId")
     public UserDto updateUser(UserDto userDto, Long userId) {
 
-        if (userRepository.existsByEmail(userDto.getEmail()))
+        if (userRepository.existsByEmailAndIdNot(userDto.getEmail(), userId))
             throw new UserAlreadyExistsException("Такой email у пользователя уже существует");
 
         if (userDto.getId() == null) {
@@ -67,6 +92,11 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
+        // Как и прежде, повтор своего email в точности — конфликт, а смена только регистра допустима
+        if (user.getEmail() != null && user.getEmail().equals(userDto.getEmail())) {
+            throw new UserAlreadyExistsException("Такой email у пользователя уже существует");
+        }
+
         if (userDto.getName() != null) {
             user.setName(userDto.getName());
         }
@@ -75,20 +105,67 @@ public class UserServiceImpl implements UserService {
             user.setEmail(userDto.getEmail());
         }
 
-        return userMapper.toUserDto(userRepository.save(user));
+        try {
+            UserDto updated = userMapper.toUserDto(userRepository.save(user));
+            // Карточки вещей пользователя содержат его имя и email, см. ItemCardCache.onUserUpdated
+            eventPublisher.publishEvent(new UserUpdatedEvent(userId));
+            return updated;
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailViolation(e)) {
+                throw new UserAlreadyExistsException("Такой email у пользователя уже существует");
+            }
+            throw e;
+        }
     }
 
     @Override
-    public Collection<UserDto> getUsers() {
-        return userRepository.findAll().stream()
+    public UserPageDto getUsers(Long cursor, Integer size) {
+        if (size == null || size <= 0) {
+            throw new ValidationException("Размер страницы должен быть положительным");
+        }
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+
+        // Запрашиваем на одну запись больше, чтобы понять, есть ли следующая страница
+        List<User> users = userRepository.findPageAfter(cursor == null ? 0 : cursor, PageRequest.of(0, pageSize + 1));
+        List<UserDto> page = users.stream()
+                .limit(pageSize)
                 .map(userMapper::toUserDto)
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+                .collect(Collectors.toList());
+        Long nextCursor = users.size() > pageSize ? page.get(page.size() - 1).getId() : null;
+        return new UserPageDto(page, nextCursor);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<UserDto> consumer) {
+        try (Stream<User> users = userRepository.streamAll()) {
+            users.forEach(user -> {
+                consumer.accept(userMapper.toUserDto(user));
+                // Иначе контекст персистентности удержит всех прочитанных пользователей до конца выгрузки
+                entityManager.detach(user);
+            });
+        }
+    }
+
+    @Override
+    @Cacheable(cacheNames = USERS_CACHE, key = "#userId")
     public UserDto getUserById(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new CustomUserNotFoundException("Пользователь не найден"));
         return userMapper.toUserDto(user);
     }
+
+    private static UserAlreadyExistsException emailInUse(String email) {
+        log.error("email={} уже используется", email);
+        return new UserAlreadyExistsException("email=" + email + " уже используется");
+    }
+
+    private static boolean isEmailViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        if (message == null) {
+            return false;
+        }
+        String lowerCase = message.toLowerCase();
+        return EMAIL_CONSTRAINTS.stream().anyMatch(lowerCase::contains);
+    }
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Имя или email пользователя изменены.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserUpdatedEvent {
+    private final Long userId;
+}
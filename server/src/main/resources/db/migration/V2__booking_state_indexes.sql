@@ -0,0 +1,20 @@
+-- Индексы под запросы BookingRepository: каждый список фильтруется по бронирующему,
+-- по вещам владельца или по статусу и сортируется по (start_date DESC, id DESC).
+
+-- GET /bookings?state=ALL|CURRENT|PAST|FUTURE — поиск по бронирующему с keyset-пагинацией
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+
+-- GET /bookings?state=WAITING|REJECTED
+CREATE INDEX IF NOT EXISTS idx_bookings_status_booker ON bookings (status, booker_id, start_date DESC);
+
+-- GET /bookings/owner (через items.owner), следующее бронирование вещи
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date);
+
+-- Последнее бронирование вещи, проверка права оставить отзыв
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end ON bookings (item_id, end_date);
+
+-- GET /items, проверка владельца вещи
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner);
+
+-- Отзывы к списку вещей
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
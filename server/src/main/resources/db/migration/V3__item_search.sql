@@ -0,0 +1,16 @@
+-- Полнотекстовый и триграммный поиск вещей для GET /items/search
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- 'simple' не стеммит слова, поэтому одинаково подходит для русских и английских названий
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING GIN (search_vector) WHERE available;
+
+-- Поиск по подстроке (ILIKE '%...%') и нечёткое совпадение (<%)
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING GIN (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING GIN (description gin_trgm_ops);
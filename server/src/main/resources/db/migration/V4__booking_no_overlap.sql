@@ -0,0 +1,8 @@
+-- Периоды активных (WAITING, APPROVED) бронирований одной вещи не пересекаются.
+-- Перед применением на существующей базе пересекающиеся бронирования нужно отклонить вручную.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings
+    ADD CONSTRAINT bookings_no_overlap
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date, '[)') WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
@@ -0,0 +1,2 @@
+-- Версия строки для оптимистической блокировки при подтверждении и отмене бронирований.
+ALTER TABLE bookings ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
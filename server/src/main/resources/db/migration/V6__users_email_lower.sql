@@ -0,0 +1,3 @@
+-- Email уникален без учета регистра: индекс обслуживает проверку existsByEmail и закрывает гонку
+-- двух одновременных регистраций. Перед применением дубликаты, отличающиеся регистром, нужно разрешить вручную.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_users_email_lower ON users (lower(email));
@@ -0,0 +1,48 @@
+package ru.practicum.shareit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Одновременный запуск вызовов для тестов гонок:
+ * {@code ConcurrentCalls.run(8, i -> () -> service.call(i))}.
+ * Все потоки ждут общего сигнала старта, пул останавливается и при упавшем вызове.
+ */
+public final class ConcurrentCalls {
+
+    private static final long TIMEOUT_SECONDS = 30;
+
+    private ConcurrentCalls() {
+    }
+
+    public static <T> List<T> run(int threads, IntFunction<Callable<T>> calls) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch ready = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Callable<T> call = calls.apply(i);
+                futures.add(executor.submit(() -> {
+                    ready.await();
+                    return call.call();
+                }));
+            }
+            ready.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
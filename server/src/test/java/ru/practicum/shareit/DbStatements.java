@@ -0,0 +1,30 @@
+package ru.practicum.shareit;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import ru.practicum.shareit.db.RequestDbStats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверки числа SQL-выражений на запрос для тестов через MockMvc с настоящей базой:
+ * {@code mockMvc.perform(get("/items/1")).andExpect(DbStatements.atMost(3))}.
+ * Счетчики берутся из атрибута запроса, который оставляет DbStatsFilter, заголовки для этого не нужны.
+ */
+public final class DbStatements {
+
+    private DbStatements() {
+    }
+
+    public static ResultMatcher atMost(int budget) {
+        return result -> assertThat(of(result).getStatements())
+                .as("SQL-выражений на %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(budget);
+    }
+
+    public static RequestDbStats of(MvcResult result) {
+        Object stats = result.getRequest().getAttribute(RequestDbStats.ATTRIBUTE);
+        assertThat(stats).as("DbStatsFilter не обработал запрос").isInstanceOf(RequestDbStats.class);
+        return (RequestDbStats) stats;
+    }
+}
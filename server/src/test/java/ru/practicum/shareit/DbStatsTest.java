@@ -0,0 +1,176 @@
+package ru.practicum.shareit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.db.DbStatsFilter;
+import ru.practicum.shareit.db.DbStatsListener;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.db-stats.headers=true")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ExtendWith(OutputCaptureExtension.class)
+class DbStatsTest {
+
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private String word;
+
+    @BeforeEach
+    void setUp() {
+        long suffix = System.nanoTime();
+        word = "budget" + suffix;
+        owner = userRepository.save(new User(null, "owner", "db-owner-" + suffix + "@a.com"));
+        booker = userRepository.save(new User(null, "booker", "db-booker-" + suffix + "@a.com"));
+        addItems(4);
+    }
+
+    @Test
+    void endpointsStayWithinStatementBudget() throws Exception {
+        mockMvc.perform(get("/items/{id}", item.getId()))
+                .andExpect(status().isOk())
+                .andExpect(DbStatements.atMost(2));
+        mockMvc.perform(get("/items").header(USER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(DbStatements.atMost(3));
+        mockMvc.perform(get("/items/search").param("text", word))
+                .andExpect(status().isOk())
+                .andExpect(DbStatements.atMost(2));
+        mockMvc.perform(get("/bookings").param("state", "ALL").header(USER_ID, booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(DbStatements.atMost(2));
+        mockMvc.perform(get("/bookings/owner").param("state", "PAST").header(USER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(DbStatements.atMost(2));
+    }
+
+    @Test
+    void ownerItemListDoesNotQueryPerItem() throws Exception {
+        int fewItems = DbStatements.of(mockMvc.perform(get("/items").header(USER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andReturn()).getStatements();
+
+        addItems(6);
+
+        mockMvc.perform(get("/items").header(USER_ID, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(DbStatements.atMost(fewItems));
+    }
+
+    @Test
+    void countersAreExposedInHeadersAndMetrics() throws Exception {
+        long requests = meterRegistry.find(DbStatsFilter.STATEMENTS_METRIC)
+                .tags("method", "GET", "uri", "/items/{itemId}/availability")
+                .summaries().stream()
+                .mapToLong(summary -> summary.count())
+                .sum();
+
+        MvcResult result = mockMvc.perform(get("/items/{id}/availability", item.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(DbStatsFilter.ROWS_HEADER))
+                .andExpect(header().exists(DbStatsFilter.TIME_HEADER))
+                .andReturn();
+
+        assertThat(meterRegistry.get(DbStatsFilter.STATEMENTS_METRIC)
+                .tags("method", "GET", "uri", "/items/{itemId}/availability")
+                .summary().count()).isEqualTo(requests + 1);
+        assertThat(meterRegistry.get(DbStatsFilter.TIME_METRIC)
+                .tags("method", "GET", "uri", "/items/{itemId}/availability")
+                .timer().count()).isGreaterThanOrEqualTo(1);
+        assertThat(result.getResponse().getHeader(DbStatsFilter.STATEMENTS_HEADER))
+                .isEqualTo(String.valueOf(DbStatements.of(result).getStatements()));
+    }
+
+    @Test
+    void slowQueriesAreLoggedWithParametersAndPlan(CapturedOutput output) throws Exception {
+        // Отдельная обертка с нулевым порогом над тем же пулом, чтобы не делать медленным весь контекст
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("meterRegistry", registry);
+        DbStatsListener listener = new DbStatsListener(beans.getBeanProvider(MeterRegistry.class),
+                beans.getBeanProvider(Tracer.class), Duration.ZERO, true);
+        DataSource slow = ProxyDataSourceBuilder.create(pool).listener(listener).build();
+
+        new JdbcTemplate(slow).queryForList("select id from items where owner = ?", Long.class, owner.getId());
+
+        assertThat(registry.get(DbStatsListener.SLOW_QUERY_METRIC).counter().count()).isEqualTo(1);
+        assertThat(output.getOut())
+                .contains("Медленный запрос")
+                .contains("select id from items where owner = ?")
+                .contains("[1=" + owner.getId() + "]")
+                .contains("ITEMS");
+    }
+
+    private void addItems(int count) {
+        LocalDateTime start = LocalDateTime.now().minusDays(10);
+        for (int i = 0; i < count; i++) {
+            Item saved = itemRepository.save(new Item(null, word, "desc", true, owner, null));
+            if (item == null) {
+                item = saved;
+            }
+            bookingRepository.save(new Booking(null, start.plusDays(i), start.plusDays(i).plusHours(1),
+                    Status.APPROVED, booker, saved));
+            bookingRepository.save(new Booking(null, start.plusDays(20 + i), start.plusDays(20 + i).plusHours(1),
+                    Status.APPROVED, booker, saved));
+            commentRepository.save(new Comment(null, "хорошо", saved, booker, start.plusDays(i).plusHours(2)));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookUpdateRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Каждый сценарий загружает ровно тот граф, который сериализует, фиксированным числом запросов.
+ */
+@SpringBootTest
+class FetchPlanStatementCountTest {
+
+    private static final int ITEMS = 5;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private final List<Item> items = new ArrayList<>();
+    private final List<Booking> bookings = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        items.clear();
+        bookings.clear();
+
+        owner = userRepository.save(new User(null, "owner", "fetch-owner@a.com"));
+        booker = userRepository.save(new User(null, "booker", "fetch-booker@a.com"));
+        LocalDateTime start = LocalDateTime.now().minusDays(20);
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemRepository.save(new Item(null, "item" + i, "desc", true, owner, null));
+            items.add(item);
+            bookings.add(bookingRepository.save(new Booking(null, start.plusDays(i), start.plusDays(i + 1),
+                    Status.APPROVED, booker, item)));
+            commentRepository.save(new Comment(null, "comment" + i, item, booker, LocalDateTime.now()));
+        }
+    }
+
+    @Test
+    void bookingList() {
+        List<BookingDto> result = countStatements(2,
+                () -> bookingService.getBookings("ALL", booker.getId(), null, 10).getBookings());
+
+        assertThat(result).hasSize(ITEMS);
+        assertThat(result).allSatisfy(booking -> {
+            assertThat(booking.getBooker().getEmail()).isEqualTo("fetch-booker@a.com");
+            assertThat(booking.getItem().getName()).startsWith("item");
+            assertThat(booking.getItem().getAvailable()).isTrue();
+        });
+    }
+
+    @Test
+    void ownerBookingList() {
+        List<BookingDto> result = countStatements(2,
+                () -> bookingService.getBookingsOwner("ALL", owner.getId(), null, 10).getBookings());
+
+        assertThat(result).hasSize(ITEMS);
+    }
+
+    @Test
+    void bookingCard() {
+        BookingDto result = countStatements(3,
+                () -> bookingService.getBookingById(bookings.get(0).getId(), booker.getId()));
+
+        assertThat(result.getItem().getOwner().getName()).isEqualTo("owner");
+    }
+
+    @Test
+    void ownerBookingCard() {
+        // Владение проверяется одним EXISTS, а не загрузкой всех вещей владельца
+        BookingDto result = countStatements(4,
+                () -> bookingService.getBookingById(bookings.get(0).getId(), owner.getId()));
+
+        assertThat(result.getBooker().getName()).isEqualTo("booker");
+    }
+
+    @Test
+    void ownerApproval() {
+        LocalDateTime start = LocalDateTime.now().plusDays(30);
+        Booking waiting = bookingRepository.save(new Booking(null, start, start.plusDays(1),
+                Status.WAITING, booker, items.get(0)));
+
+        // SELECT ... FOR UPDATE с владельцем вещи и один UPDATE с проверкой версии
+        BookingDto result = countStatements(2,
+                () -> bookingService.update(waiting.getId(), owner.getId(), new BookUpdateRequestDto(true)));
+
+        assertThat(result.getStatus()).isEqualTo(Status.APPROVED);
+        assertThat(bookingRepository.findById(waiting.getId()).orElseThrow().getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void itemCard() {
+        ItemDto result = countStatements(2, () -> itemService.getItemById(items.get(0).getId()));
+
+        assertThat(result.getOwner().getName()).isEqualTo("owner");
+        assertThat(result.getComments()).hasSize(1);
+    }
+
+    @Test
+    void ownerItemList() {
+        List<ItemDto> result = countStatements(4, () -> itemService.getItemsByOwner(owner.getId()));
+
+        assertThat(result).hasSize(ITEMS);
+        assertThat(result).allSatisfy(item -> assertThat(item.getComments()).hasSize(1));
+    }
+
+    @Test
+    void commentList() {
+        assertThat(countStatements(1, () -> itemService.getCommentsByItemId(items.get(0).getId())))
+                .singleElement()
+                .satisfies(comment -> assertThat(comment.getAuthorName()).isEqualTo("booker"));
+    }
+
+    private <T> T countStatements(long max, Supplier<T> action) {
+        statistics.clear();
+        T result = action.get();
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL statements")
+                .isLessThanOrEqualTo(max);
+        return result;
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.MethodMetricsAspect;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MethodMetricsTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        long suffix = System.nanoTime();
+        owner = userRepository.save(new User(null, "owner", "metrics-owner-" + suffix + "@a.com"));
+        booker = userRepository.save(new User(null, "booker", "metrics-booker-" + suffix + "@a.com"));
+        Item item = itemRepository.save(new Item(null, "item", "desc", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().minusDays(3);
+        bookingRepository.save(new Booking(null, start, start.plusDays(1), Status.APPROVED, booker, item));
+    }
+
+    @Test
+    void ownerBookingListIsTimedByStateAndRole() {
+        long serviceCalls = calls(MethodMetricsAspect.SERVICE_METRIC, "BookingService", "getBookingsOwner",
+                "PAST", "OWNER", "none");
+        long queries = calls(MethodMetricsAspect.REPOSITORY_METRIC, "BookingRepository", "find",
+                "PAST", "OWNER", "none");
+
+        assertThat(bookingService.getBookingsOwner("past", owner.getId())).hasSize(1);
+
+        assertThat(calls(MethodMetricsAspect.SERVICE_METRIC, "BookingService", "getBookingsOwner",
+                "PAST", "OWNER", "none")).isEqualTo(serviceCalls + 1);
+        assertThat(calls(MethodMetricsAspect.REPOSITORY_METRIC, "BookingRepository", "find",
+                "PAST", "OWNER", "none")).isEqualTo(queries + 1);
+        assertThat(meterRegistry.get(MethodMetricsAspect.SERVICE_METRIC + ".result.size")
+                .tags("type", "BookingService", "method", "getBookingsOwner", "state", "PAST", "role", "OWNER")
+                .summary().max()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void serviceErrorsAreCountedByException() {
+        long failures = calls(MethodMetricsAspect.SERVICE_METRIC, "BookingService", "getBookings",
+                "UNKNOWN", "BOOKER", "ValidationException");
+
+        assertThatThrownBy(() -> bookingService.getBookings("unsupported", booker.getId()))
+                .isInstanceOf(ValidationException.class);
+
+        assertThat(calls(MethodMetricsAspect.SERVICE_METRIC, "BookingService", "getBookings",
+                "UNKNOWN", "BOOKER", "ValidationException")).isEqualTo(failures + 1);
+    }
+
+    @Test
+    void histogramsAreExposedForPrometheus() throws Exception {
+        bookingService.getBookingsOwner("FUTURE", owner.getId());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("shareit_service_seconds_bucket")))
+                .andExpect(content().string(containsString("shareit_repository_seconds_bucket")))
+                .andExpect(content().string(containsString("state=\"FUTURE\"")));
+    }
+
+    private long calls(String metric, String type, String method, String state, String role, String exception) {
+        return meterRegistry.find(metric)
+                .tags("type", type, "method", method, "state", state, "role", role, "exception", exception)
+                .timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+}
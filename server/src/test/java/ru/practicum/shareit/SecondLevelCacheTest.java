@@ -0,0 +1,117 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Кэш второго уровня Hibernate для User и Item: повторное чтение по id не обращается к базе.
+ */
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserService userService;
+
+    private Statistics statistics;
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(new User(null, "owner", "l2-owner-" + System.nanoTime() + "@a.com"));
+        item = itemRepository.save(new Item(null, "item", "desc", true, owner, null));
+    }
+
+    @Test
+    void userIsReadFromSecondLevelCache() {
+        userRepository.findById(owner.getId());
+        statistics.clear();
+
+        assertThat(userRepository.findById(owner.getId())).isPresent();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics(User.CACHE_REGION).getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void itemAndOwnerAreReadFromSecondLevelCache() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> itemRepository.findById(item.getId()).orElseThrow()
+                .getOwner().getName());
+        statistics.clear();
+
+        // Из кэша вещь приходит без графа, владелец дочитывается из региона user в той же транзакции
+        String ownerName = transaction.execute(status -> itemRepository.findById(item.getId()).orElseThrow()
+                .getOwner().getName());
+
+        assertThat(ownerName).isEqualTo("owner");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics(Item.CACHE_REGION).getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void updatedUserReplacesCachedEntry() {
+        userRepository.findById(owner.getId());
+        owner.setName("renamed");
+        userRepository.save(owner);
+
+        assertThat(userRepository.findById(owner.getId()).orElseThrow().getName()).isEqualTo("renamed");
+    }
+
+    @Test
+    void regionStatisticsAreExposedAsMetrics() {
+        userRepository.findById(owner.getId());
+        userRepository.findById(owner.getId());
+
+        assertThat(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", User.CACHE_REGION)
+                .tag("result", "hit")
+                .functionCounter()
+                .count()).isPositive();
+    }
+
+    @Test
+    void exportDoesNotFillUserRegion() {
+        userRepository.save(new User(null, "exported", "l2-export-" + System.nanoTime() + "@a.com"));
+        long puts = statistics.getDomainDataRegionStatistics(User.CACHE_REGION).getPutCount();
+
+        AtomicInteger exported = new AtomicInteger();
+        userService.exportUsers(user -> exported.incrementAndGet());
+
+        assertThat(exported).hasPositiveValue();
+        assertThat(statistics.getDomainDataRegionStatistics(User.CACHE_REGION).getPutCount()).isEqualTo(puts);
+    }
+}
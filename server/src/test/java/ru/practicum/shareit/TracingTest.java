@@ -0,0 +1,117 @@
+package ru.practicum.shareit;
+
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class TracingTest {
+
+    private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+    private static final String GATEWAY_SPAN_ID = "b7ad6b7169203331";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InMemorySpanExporter exporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        long suffix = System.nanoTime();
+        owner = userRepository.save(new User(null, "owner", "trace-owner-" + suffix + "@a.com"));
+        User booker = userRepository.save(new User(null, "booker", "trace-booker-" + suffix + "@a.com"));
+        Item item = itemRepository.save(new Item(null, "item", "desc", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().minusDays(3);
+        bookingRepository.save(new Booking(null, start, start.plusDays(1), Status.APPROVED, booker, item));
+        flush();
+        exporter.reset();
+    }
+
+    @Test
+    void gatewayTraceContinuesThroughServiceRepositoryAndSql() throws Exception {
+        mockMvc.perform(get("/bookings/owner")
+                        .param("state", "ALL")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .header("traceparent", "00-" + TRACE_ID + "-" + GATEWAY_SPAN_ID + "-01"))
+                .andExpect(status().isOk());
+        flush();
+
+        List<SpanData> spans = exporter.getFinishedSpanItems().stream()
+                .filter(span -> span.getTraceId().equals(TRACE_ID))
+                .toList();
+        SpanData request = span(spans, "http get /bookings/owner");
+        SpanData service = span(spans, "BookingService.getBookingsOwner");
+        SpanData repository = span(spans, "BookingRepository.find");
+
+        assertThat(request.getParentSpanId()).isEqualTo(GATEWAY_SPAN_ID);
+        assertThat(service.getParentSpanId()).isEqualTo(request.getSpanId());
+        assertThat(service.getAttributes().asMap().toString()).contains("state=ALL", "role=OWNER");
+        assertThat(repository.getParentSpanId()).isEqualTo(service.getSpanId());
+        assertThat(spans)
+                .filteredOn(span -> span.getName().equals("SQL") && span.getParentSpanId().equals(repository.getSpanId()))
+                .isNotEmpty()
+                .allSatisfy(sql -> assertThat(sql.getAttributes().asMap().toString()).contains("db.statement"));
+    }
+
+    private static SpanData span(List<SpanData> spans, String name) {
+        return spans.stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Нет спана " + name + " среди "
+                        + spans.stream().map(SpanData::getName).toList()));
+    }
+
+    private void flush() {
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+    }
+
+    @TestConfiguration
+    static class InMemoryExporterConfiguration {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+}
@@ -14,6 +14,7 @@ import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.dto.BookUpdateRequestDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -26,6 +27,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
+import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
@@ -110,7 +112,8 @@ public class BookingControllerTest {
 
     @Test
     void getBookings() throws Exception {
-        when(bookingService.getBookings(any(), anyLong())).thenReturn(Collections.emptyList());
+        when(bookingService.getBookings(any(), anyLong(), any(), anyInt()))
+                .thenReturn(new BookingPageDto(Collections.emptyList(), null));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1L)
@@ -164,7 +167,8 @@ public class BookingControllerTest {
 
     @Test
     void getBookingsOwner() throws Exception {
-        when(bookingService.getBookingsOwner(anyString(), anyLong())).thenReturn(Collections.emptyList());
+        when(bookingService.getBookingsOwner(anyString(), anyLong(), any(), anyInt()))
+                .thenReturn(new BookingPageDto(Collections.emptyList(), null));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1L)
@@ -174,4 +178,19 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json("[]"));
     }
+
+    @Test
+    void getBookingsWithNextCursor() throws Exception {
+        when(bookingService.getBookings("ALL", 1L, "abc", 1))
+                .thenReturn(new BookingPageDto(List.of(bookingDto), "def"));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("cursor", "abc")
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "def"))
+                .andExpect(jsonPath("$.length()", is(1)));
+    }
 }
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет по EXPLAIN, что запросы состояний бронирований в Postgres идут по индексам из миграций.
+ * Каждому индексу соответствует запрос, который может обслужить только он, поэтому потеря любого индекса
+ * роняет свой случай.
+ * Без Docker тест пропускается.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class BookingIndexPlanTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), true);
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("""
+                INSERT INTO users (name, email)
+                SELECT 'user' || g, 'user' || g || '@mail.com' FROM generate_series(1, 1000) g
+                """);
+        jdbc.execute("""
+                INSERT INTO items (name, description, available, owner)
+                SELECT 'item' || g, 'description' || g, true, 1 + g % 1000 FROM generate_series(1, 5000) g
+                """);
+        jdbc.execute("""
+                INSERT INTO bookings (start_date, end_date, item_id, booker_id, status)
+                SELECT now() + (g / 5000 * 3 - 15) * interval '1 day',
+                       now() + (g / 5000 * 3 - 13) * interval '1 day',
+                       1 + g % 5000,
+                       1 + g % 1000,
+                       (ARRAY['WAITING', 'APPROVED', 'REJECTED', 'CANCELED'])[1 + g % 4]
+                FROM generate_series(1, 50000) g
+                """);
+        jdbc.execute("""
+                INSERT INTO comments (text, item_id, author_id, created)
+                SELECT 'comment' || g, 1 + g % 5000, 1 + g % 1000, now() FROM generate_series(1, 10000) g
+                """);
+        jdbc.execute("ANALYZE");
+        jdbc.execute("SET enable_seqscan = off");
+    }
+
+    static Stream<Arguments> stateQueries() {
+        String keyset = " AND (b.start_date < now() OR (b.start_date = now() AND b.id < 100000))"
+                + " ORDER BY b.start_date DESC, b.id DESC LIMIT 11";
+        return Stream.of(
+                Arguments.of("booker ALL",
+                        "SELECT b.* FROM bookings b WHERE b.booker_id = 42" + keyset,
+                        "idx_bookings_booker_start"),
+                Arguments.of("booker CURRENT",
+                        "SELECT b.* FROM bookings b WHERE b.booker_id = 42"
+                                + " AND b.start_date < now() AND b.end_date > now()" + keyset,
+                        "idx_bookings_booker_start"),
+                Arguments.of("booker PAST",
+                        "SELECT b.* FROM bookings b WHERE b.booker_id = 42 AND b.end_date < now()" + keyset,
+                        "idx_bookings_booker_start"),
+                // Без id в сортировке: такой порядок целиком отдает только (status, booker_id, start_date DESC),
+                // индексу бронирующего пришлось бы фильтровать строки по статусу
+                Arguments.of("booker WAITING",
+                        "SELECT b.* FROM bookings b WHERE b.booker_id = 42 AND b.status = 'WAITING'"
+                                + " ORDER BY b.start_date DESC LIMIT 11",
+                        "idx_bookings_status_booker"),
+                Arguments.of("owner ALL",
+                        "SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id WHERE i.owner = 7" + keyset,
+                        "idx_items_owner"),
+                Arguments.of("last booking",
+                        "SELECT b.* FROM bookings b WHERE b.item_id = 42 AND b.end_date < now()"
+                                + " ORDER BY b.end_date DESC LIMIT 1",
+                        "idx_bookings_item_end"),
+                Arguments.of("next booking",
+                        "SELECT b.* FROM bookings b WHERE b.item_id = 42 AND b.start_date > now()"
+                                + " ORDER BY b.start_date LIMIT 1",
+                        "idx_bookings_item_start"),
+                Arguments.of("comments",
+                        "SELECT c.* FROM comments c WHERE c.item_id IN (1, 2, 3)",
+                        "idx_comments_item")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("stateQueries")
+    void stateQueryUsesIndex(String name, String query, String expectedIndex) {
+        String plan = String.join("\n", jdbc.queryForList("EXPLAIN " + query, String.class));
+
+        assertThat(plan)
+                .as("plan for %s", name)
+                .containsPattern("(using|on) " + expectedIndex + "\\b");
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Ограничение bookings_no_overlap из миграции V4. Без Docker тест пропускается.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class BookingOverlapConstraintTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void migrate() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword(), true);
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO users (id, name, email) VALUES (1, 'owner', 'owner@mail.com')");
+        jdbc.update("INSERT INTO users (id, name, email) VALUES (2, 'booker', 'booker@mail.com')");
+        jdbc.update("INSERT INTO items (id, name, description, available, owner) VALUES (1, 'item', 'd', true, 1)");
+        jdbc.update("INSERT INTO items (id, name, description, available, owner) VALUES (2, 'item', 'd', true, 1)");
+        book(1, "2030-01-01 10:00", "2030-01-05 10:00", "APPROVED");
+    }
+
+    private static void book(long itemId, String start, String end, String status) {
+        jdbc.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status)"
+                        + " VALUES (?::timestamp, ?::timestamp, ?, 2, ?)", start, end, itemId, status);
+    }
+
+    @Test
+    void rejectsOverlappingActiveBooking() {
+        assertThatThrownBy(() -> book(1, "2030-01-04 10:00", "2030-01-06 10:00", "WAITING"))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("bookings_no_overlap");
+    }
+
+    @Test
+    void allowsAdjacentRejectedAndOtherItemBookings() {
+        assertThatCode(() -> {
+            book(1, "2030-01-05 10:00", "2030-01-06 10:00", "WAITING");
+            book(1, "2030-01-02 10:00", "2030-01-03 10:00", "REJECTED");
+            book(2, "2030-01-02 10:00", "2030-01-03 10:00", "APPROVED");
+        }).doesNotThrowAnyException();
+    }
+}
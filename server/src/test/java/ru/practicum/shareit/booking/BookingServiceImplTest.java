@@ -4,18 +4,27 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import ru.practicum.shareit.ConcurrentCalls;
 import ru.practicum.shareit.booking.dto.BookUpdateRequestDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingNeighboursDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingRow;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.dto.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.exception.CustomUserNotFoundException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -24,7 +33,14 @@ import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,6 +57,9 @@ public class BookingServiceImplTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private CommentRepository commentRepository;
+
     @Autowired
     private BookingService bookingService;
 
@@ -134,6 +153,101 @@ public class BookingServiceImplTest {
         assertThrows(NotFoundException.class, () -> bookingService.bookItem(bookingInputDto, savedUser.getId()));
     }
 
+    @Test
+    void bookItem_ShouldThrowValidationException_WhenPeriodOverlaps() {
+        User savedUser = userRepository.save(new User(null, "owner", "overlap-owner@a.com"));
+        User savedUserBooker = userRepository.save(new User(null, "booker", "overlap-booker@a.com"));
+        Item savedItem = itemRepository.save(new Item(null, "name", "desc", true, savedUser, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(10).withNano(0);
+
+        BookingDto first = bookingService.bookItem(
+                toInputDto(savedItem, start, start.plusDays(2)), savedUserBooker.getId());
+        BookingInputDto overlapping = toInputDto(savedItem, start.plusDays(1), start.plusDays(3));
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.bookItem(overlapping, savedUserBooker.getId()));
+        assertNotNull(bookingService.bookItem(
+                toInputDto(savedItem, start.plusDays(2), start.plusDays(3)), savedUserBooker.getId()));
+
+        bookingService.update(first.getId(), savedUser.getId(), new BookUpdateRequestDto(false));
+        assertNotNull(bookingService.bookItem(
+                toInputDto(savedItem, start.minusDays(1), start.plusDays(1)), savedUserBooker.getId()));
+    }
+
+    @Test
+    void bookItem_ShouldAcceptOnlyOneOfConcurrentOverlappingBookings() throws Exception {
+        User user = new User();
+        user.setName("owner");
+        user.setEmail("race-owner@a.com");
+        User savedUser = userRepository.save(user);
+
+        User userBooker = new User();
+        userBooker.setName("booker");
+        userBooker.setEmail("race-booker@a.com");
+        User savedUserBooker = userRepository.save(userBooker);
+
+        Item item = new Item();
+        item.setName("name");
+        item.setDescription("desc");
+        item.setAvailable(true);
+        item.setOwner(savedUser);
+        Item savedItem = itemRepository.save(item);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(10).withNano(0);
+
+        List<Boolean> results = ConcurrentCalls.run(8, i -> () -> {
+            LocalDateTime shiftedStart = start.plusHours(i);
+            try {
+                bookingService.bookItem(toInputDto(savedItem, shiftedStart, shiftedStart.plusDays(1)),
+                        savedUserBooker.getId());
+                return true;
+            } catch (ValidationException e) {
+                return false;
+            }
+        });
+
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+    }
+
+    @Test
+    void update_ShouldApplyOnlyOneOfConcurrentDecisions() throws Exception {
+        User savedUser = userRepository.save(new User(null, "owner", "decision-owner@a.com"));
+        User savedUserBooker = userRepository.save(new User(null, "booker", "decision-booker@a.com"));
+        Item savedItem = itemRepository.save(new Item(null, "name", "desc", true, savedUser, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(10).withNano(0);
+        Booking savedBooking = bookingRepository.save(new Booking(null, start, start.plusDays(1),
+                Status.WAITING, savedUserBooker, savedItem));
+
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            BookUpdateRequestDto decision = new BookUpdateRequestDto(i % 2 == 0);
+            results.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    bookingService.update(savedBooking.getId(), savedUser.getId(), decision);
+                    return true;
+                } catch (ValidationException e) {
+                    return false;
+                }
+            }));
+        }
+        ready.countDown();
+
+        int applied = 0;
+        for (Future<Boolean> result : results) {
+            applied += result.get(30, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertEquals(1, applied);
+        Booking decided = bookingRepository.findById(savedBooking.getId()).orElseThrow();
+        assertNotEquals(Status.WAITING, decided.getStatus());
+        assertEquals(1L, decided.getVersion());
+    }
+
     @Test
     void update() {
         User user = new User();
@@ -169,6 +283,23 @@ public class BookingServiceImplTest {
         assertNotNull(shortDto);
     }
 
+    @Test
+    void update_shouldReturnItemComments() {
+        User savedUser = userRepository.save(new User(null, "owner", "update-comments-owner@a.com"));
+        User savedUserBooker = userRepository.save(new User(null, "booker", "update-comments-booker@a.com"));
+        Item savedItem = itemRepository.save(new Item(null, "name", "desc", true, savedUser, null));
+        commentRepository.save(new Comment(null, "хорошо", savedItem, savedUserBooker, LocalDateTime.now()));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking savedBooking = bookingRepository.save(
+                new Booking(null, start, start.plusDays(1), Status.WAITING, savedUserBooker, savedItem));
+
+        BookingDto updated = bookingService.update(savedBooking.getId(), savedUser.getId(),
+                new BookUpdateRequestDto(true));
+
+        assertEquals(Status.APPROVED, updated.getStatus());
+        assertThat(updated.getItem().getComments()).extracting(CommentDto::getText).containsExactly("хорошо");
+    }
+
     @Test
     void update_CancelBooking() {
 
@@ -761,6 +892,162 @@ public class BookingServiceImplTest {
         assertNotNull(dto);
     }
 
+    @Test
+    void getBookings_shouldPageWithCursor() {
+        User user = new User();
+        user.setName("name");
+        user.setEmail("cursor@a.com");
+        User savedUser = userRepository.save(user);
+
+        User userBooker = new User();
+        userBooker.setName("name");
+        userBooker.setEmail("cursor@b.com");
+        User savedUserBooker = userRepository.save(userBooker);
+
+        Item item = new Item();
+        item.setName("name");
+        item.setDescription("desc");
+        item.setAvailable(true);
+        item.setOwner(savedUser);
+        Item savedItem = itemRepository.save(item);
+
+        LocalDateTime start = LocalDateTime.now().minusDays(10);
+        Booking first = saveBooking(savedItem, savedUserBooker, start, start.plusDays(1), Status.WAITING);
+        Booking second = saveBooking(savedItem, savedUserBooker, start, start.plusDays(1), Status.WAITING);
+        Booking third = saveBooking(savedItem, savedUserBooker, start.plusDays(1), start.plusDays(2), Status.WAITING);
+
+        BookingPageDto firstPage = bookingService.getBookings("ALL", savedUserBooker.getId(), null, 2);
+        assertEquals(List.of(third.getId(), second.getId()),
+                firstPage.getBookings().stream().map(BookingDto::getId).toList());
+        assertNotNull(firstPage.getNextCursor());
+
+        BookingPageDto secondPage = bookingService
+                .getBookings("ALL", savedUserBooker.getId(), firstPage.getNextCursor(), 2);
+        assertEquals(List.of(first.getId()), secondPage.getBookings().stream().map(BookingDto::getId).toList());
+        assertNull(secondPage.getNextCursor());
+
+        BookingPageDto ownerPage = bookingService.getBookingsOwner("ALL", savedUser.getId(), null, 3);
+        assertEquals(3, ownerPage.getBookings().size());
+        assertNull(ownerPage.getNextCursor());
+    }
+
+    @Test
+    void getBookings_shouldReturnAllBookingsWithoutPaging() {
+        User user = new User();
+        user.setName("name");
+        user.setEmail("unpaged@a.com");
+        User savedUser = userRepository.save(user);
+
+        User userBooker = new User();
+        userBooker.setName("name");
+        userBooker.setEmail("unpaged@b.com");
+        User savedUserBooker = userRepository.save(userBooker);
+
+        Item item = new Item();
+        item.setName("name");
+        item.setDescription("desc");
+        item.setAvailable(true);
+        item.setOwner(savedUser);
+        Item savedItem = itemRepository.save(item);
+
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        int count = BookingServiceImpl.DEFAULT_PAGE_SIZE + 5;
+        for (int i = 0; i < count; i++) {
+            saveBooking(savedItem, savedUserBooker, start.plusDays(i), start.plusDays(i).plusHours(1), Status.WAITING);
+        }
+
+        assertEquals(count, bookingService.getBookings("ALL", savedUserBooker.getId()).size());
+        assertEquals(count, bookingService.getBookingsOwner("ALL", savedUser.getId()).size());
+    }
+
+    @Test
+    void getBookings_shouldThrowValidationException_whenCursorIsMalformed() {
+        User user = new User();
+        user.setName("name");
+        user.setEmail("cursor@c.com");
+        User savedUser = userRepository.save(user);
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.getBookings("ALL", savedUser.getId(), "not-a-cursor", 10));
+    }
+
+    @Test
+    void getBookings_shouldFilterByApprovedAndCanceledStates() {
+        User owner = userRepository.save(new User(null, "owner", "states-owner@a.com"));
+        User booker = userRepository.save(new User(null, "booker", "states-booker@a.com"));
+        Item item = itemRepository.save(new Item(null, "name", "desc", true, owner, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking approved = saveBooking(item, booker, start, start.plusDays(1), Status.APPROVED);
+        Booking canceled = saveBooking(item, booker, start.plusDays(2), start.plusDays(3), Status.CANCELED);
+
+        assertThat(bookingService.getBookings("approved", booker.getId()))
+                .extracting(BookingDto::getId).containsExactly(approved.getId());
+        assertThat(bookingService.getBookingsOwner("CANCELED", owner.getId()))
+                .extracting(BookingDto::getId).containsExactly(canceled.getId());
+    }
+
+    @Test
+    void find_shouldCombineItemStatusAndRangeFilters() {
+        User owner = userRepository.save(new User(null, "owner", "query-owner@a.com"));
+        User booker = userRepository.save(new User(null, "booker", "query-booker@a.com"));
+        Item item = itemRepository.save(new Item(null, "name", "desc", true, owner, null));
+        Item otherItem = itemRepository.save(new Item(null, "name", "desc", true, owner, null));
+        LocalDateTime day = LocalDateTime.parse("2030-01-01T10:00:00");
+        saveBooking(item, booker, day, day.plusDays(1), Status.APPROVED);
+        Booking inRange = saveBooking(item, booker, day.plusDays(5), day.plusDays(6), Status.APPROVED);
+        saveBooking(item, booker, day.plusDays(5), day.plusDays(6), Status.REJECTED);
+        saveBooking(otherItem, booker, day.plusDays(5), day.plusDays(6), Status.APPROVED);
+
+        List<BookingRow> rows = bookingRepository.find(BookingQuery.builder()
+                .role(BookingQuery.Role.OWNER)
+                .userId(owner.getId())
+                .now(day)
+                .itemId(item.getId())
+                .status(Status.APPROVED)
+                .rangeStart(day.plusDays(3))
+                .rangeEnd(day.plusDays(10))
+                .limit(10)
+                .build());
+
+        assertThat(rows).extracting(BookingRow::getId).containsExactly(inRange.getId());
+    }
+
+    @Test
+    void getBookingNeighbours() {
+        User user = new User();
+        user.setName("name");
+        user.setEmail("neighbours@a.com");
+        User savedUser = userRepository.save(user);
+
+        User userBooker = new User();
+        userBooker.setName("name");
+        userBooker.setEmail("neighbours@b.com");
+        User savedUserBooker = userRepository.save(userBooker);
+
+        Item item = new Item();
+        item.setName("name");
+        item.setDescription("desc");
+        item.setAvailable(true);
+        item.setOwner(savedUser);
+        Item savedItem = itemRepository.save(item);
+
+        LocalDateTime now = LocalDateTime.now();
+        Booking older = saveBooking(savedItem, savedUserBooker, now.minusDays(10), now.minusDays(9), Status.APPROVED);
+        Booking last = saveBooking(savedItem, savedUserBooker, now.minusDays(5), now.minusDays(4), Status.APPROVED);
+        Booking next = saveBooking(savedItem, savedUserBooker, now.plusDays(2), now.plusDays(3), Status.APPROVED);
+        saveBooking(savedItem, savedUserBooker, now.plusDays(1), now.plusDays(2), Status.WAITING);
+        saveBooking(savedItem, savedUserBooker, now.plusDays(5), now.plusDays(6), Status.APPROVED);
+
+        Map<Long, BookingNeighboursDto> neighbours = bookingService.getBookingNeighbours(List.of(savedItem.getId()));
+
+        BookingNeighboursDto dto = neighbours.get(savedItem.getId());
+        assertNotNull(dto);
+        assertEquals(last.getId(), dto.getLastBooking().getId());
+        assertEquals(savedUserBooker.getId(), dto.getLastBooking().getBookerId());
+        assertEquals(next.getId(), dto.getNextBooking().getId());
+        assertNotEquals(older.getId(), dto.getLastBooking().getId());
+    }
+
     @Test
     void getBookingWithUserBookedItem() {
         User user = new User();
@@ -794,4 +1081,21 @@ public class BookingServiceImplTest {
         assertNotNull(booking);
     }
 
+    private Booking saveBooking(Item item, User booker, LocalDateTime start, LocalDateTime end, Status status) {
+        Booking booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(status);
+        return bookingRepository.save(booking);
+    }
+
+    private BookingInputDto toInputDto(Item item, LocalDateTime start, LocalDateTime end) {
+        BookingInputDto inputDto = new BookingInputDto();
+        inputDto.setItemId(item.getId());
+        inputDto.setStart(start);
+        inputDto.setEnd(end);
+        return inputDto;
+    }
 }
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Два экземпляра сервера в одном процессе: у каждого свой L1, общий уровень — встроенный кластер Hazelcast.
+ */
+class TwoLevelCacheTest {
+
+    private static HazelcastCacheTier firstTier;
+    private static HazelcastCacheTier secondTier;
+
+    @BeforeAll
+    static void startCluster() {
+        String cluster = "shareit-test-" + UUID.randomUUID();
+        firstTier = new HazelcastCacheTier(cluster, List.of("127.0.0.1"), 5801, Duration.ofMinutes(1));
+        secondTier = new HazelcastCacheTier(cluster, List.of("127.0.0.1"), 5801, Duration.ofMinutes(1));
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        secondTier.shutdown();
+        firstTier.shutdown();
+    }
+
+    @Test
+    void secondNodeReadsValueLoadedByFirstNode() {
+        TwoLevelCache first = cache("shared", firstTier);
+        TwoLevelCache second = cache("shared", secondTier);
+        AtomicInteger loads = new AtomicInteger();
+
+        UserDto loaded = first.get(1L, () -> {
+            loads.incrementAndGet();
+            return new UserDto(1L, "user", "user@mail.com");
+        });
+        UserDto shared = second.get(1L, () -> {
+            loads.incrementAndGet();
+            return null;
+        });
+
+        assertThat(loads).hasValue(1);
+        assertThat(shared).isEqualTo(loaded);
+    }
+
+    @Test
+    void evictionOnOneNodeInvalidatesLocalCopiesOnOthers() throws InterruptedException {
+        TwoLevelCache first = cache("evicted", firstTier);
+        TwoLevelCache second = cache("evicted", secondTier);
+        first.put(2L, new UserDto(2L, "old", "old@mail.com"));
+        assertThat(second.get(2L, UserDto.class).getName()).isEqualTo("old");
+
+        first.evict(2L);
+
+        awaitEvicted(second, 2L);
+        assertThat(second.get(2L)).isNull();
+    }
+
+    @Test
+    void clearOnOneNodeClearsOthers() throws InterruptedException {
+        TwoLevelCache first = cache("cleared", firstTier);
+        TwoLevelCache second = cache("cleared", secondTier);
+        second.put(3L, new UserDto(3L, "user", "user3@mail.com"));
+
+        first.clear();
+
+        awaitEvicted(second, 3L);
+        assertThat(first.get(3L)).isNull();
+    }
+
+    @Test
+    void loadReadBeforeInvalidationIsNotShared() {
+        TwoLevelCache first = cache("raced", firstTier);
+        TwoLevelCache second = cache("raced", secondTier);
+
+        // Загрузка на первом узле прочитала базу до коммита, сброс после коммита пришел со второго узла
+        UserDto stale = first.get(4L, () -> {
+            second.evict(4L);
+            return new UserDto(4L, "old", "old4@mail.com");
+        });
+
+        assertThat(stale.getName()).isEqualTo("old");
+        assertThat(secondTier.get("raced", 4L)).isNull();
+        assertThat(second.get(4L, () -> new UserDto(4L, "new", "new4@mail.com")).getName()).isEqualTo("new");
+        assertThat(firstTier.get("raced", 4L)).isEqualTo(new UserDto(4L, "new", "new4@mail.com"));
+    }
+
+    @Test
+    void putIfCurrentSkipsWriteAfterInvalidation() {
+        long generation = firstTier.generation("conditional", 5L);
+        firstTier.putIfCurrent("conditional", 5L, "fresh", generation);
+        assertThat(secondTier.get("conditional", 5L)).isEqualTo("fresh");
+
+        long readBefore = firstTier.generation("conditional", 5L);
+        secondTier.invalidate("conditional", 5L);
+        firstTier.putIfCurrent("conditional", 5L, "stale", readBefore);
+
+        assertThat(secondTier.get("conditional", 5L)).isNull();
+    }
+
+    /**
+     * Сброс приходит через топик асинхронно.
+     */
+    private static void awaitEvicted(TwoLevelCache cache, Object key) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (cache.getLocal().get(key) != null && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(cache.getLocal().get(key)).isNull();
+    }
+
+    private static TwoLevelCache cache(String name, CacheTier tier) {
+        return new TwoLevelCache(new CaffeineCache(name, Caffeine.newBuilder().build()), tier);
+    }
+}
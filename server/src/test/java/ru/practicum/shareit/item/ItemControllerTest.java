@@ -13,7 +13,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -162,7 +164,7 @@ public class ItemControllerTest {
 
     @Test
     void getItemsBySearchQuery() throws Exception {
-        when(itemService.getItemsBySearchQuery(anyString())).thenReturn(Collections.emptyList());
+        when(itemService.getItemsBySearchQuery(anyString(), anyInt(), anyInt())).thenReturn(Collections.emptyList());
 
         mvc.perform(get("/items/search?text=test")
                         .header("X-Sharer-User-Id", 1L)
@@ -173,6 +175,25 @@ public class ItemControllerTest {
                 .andExpect(content().json("[]"));
     }
 
+    @Test
+    void getAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.parse("2030-01-01T10:00:00");
+        LocalDateTime to = from.plusDays(10);
+        ItemAvailabilityDto availability = new ItemAvailabilityDto(1L, from, to,
+                List.of(new TimeSlotDto(from.plusDays(1), from.plusDays(4))),
+                List.of(new TimeSlotDto(from, from.plusDays(1)), new TimeSlotDto(from.plusDays(4), to)));
+        when(itemService.getAvailability(1L, from, to)).thenReturn(availability);
+
+        mvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-11T10:00:00")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.busy.length()", is(1)))
+                .andExpect(jsonPath("$.busy[0].start", is("2030-01-02T10:00:00")))
+                .andExpect(jsonPath("$.free.length()", is(2)));
+    }
+
     @Test
     void addComment() throws Exception {
         when(itemService.addComment(any(), anyLong(), anyLong())).thenReturn(commentDto);
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemSearchIndexTest {
+
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex();
+        index.put(1L, "Дрель", "Аккумуляторная дрель, в комплекте отвертка", true);
+        index.put(2L, "Отвертка", "Крестовая", true);
+        index.put(3L, "Отвертка сломанная", "Не работает", false);
+        index.put(4L, "Набор отверток", "Крестовая и плоская", true);
+    }
+
+    @Test
+    void searchRanksNameMatchesFirstAndSkipsUnavailable() {
+        assertThat(index.search("ОТВЕРТ", 0, 10)).containsExactly(2L, 4L, 1L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void searchRequiresAllWords() {
+        assertThat(index.search("крестовая плоская", 0, 10)).containsExactly(4L);
+        assertThat(index.search("дрель плоская", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void searchPages() {
+        assertThat(index.search("отверт", 1, 1)).containsExactly(4L);
+        assertThat(index.search("отверт", 2, 10)).containsExactly(1L);
+        assertThat(index.search("отверт", 3, 10)).isEmpty();
+        assertThat(index.search("  ,. ", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void putReplacesAndRemoves() {
+        index.put(2L, "Молоток", "Крестовая", true);
+        assertThat(index.search("отвертка", 0, 10)).containsExactly(1L);
+        assertThat(index.search("молоток", 0, 10)).containsExactly(2L);
+
+        index.put(2L, "Молоток", "Крестовая", false);
+        assertThat(index.search("молоток", 0, 10)).isEmpty();
+
+        index.remove(4L);
+        assertThat(index.search("крестовая", 0, 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+}
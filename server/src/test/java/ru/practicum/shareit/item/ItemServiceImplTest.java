@@ -1,5 +1,8 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,21 +12,33 @@ import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exception.CustomUserNotFoundException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -48,9 +63,15 @@ public class ItemServiceImplTest {
     @Autowired
     private ItemMapper itemMapper;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private UserService userService;
+
     @Test
     void deleteItem() {
         User user = new User();
@@ -229,6 +250,49 @@ public class ItemServiceImplTest {
         assertEquals(1, result.size());
     }
 
+    @Test
+    void getItemsByOwnerWithComments() {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner@comments.com");
+        User savedOwner = userRepository.save(owner);
+
+        User author = new User();
+        author.setName("author");
+        author.setEmail("author@comments.com");
+        User savedAuthor = userRepository.save(author);
+
+        Item first = new Item();
+        first.setName("first");
+        first.setDescription("desc");
+        first.setAvailable(true);
+        first.setOwner(savedOwner);
+        Item savedFirst = itemRepository.save(first);
+
+        Item second = new Item();
+        second.setName("second");
+        second.setDescription("desc");
+        second.setAvailable(true);
+        second.setOwner(savedOwner);
+        Item savedSecond = itemRepository.save(second);
+
+        Comment comment = new Comment();
+        comment.setText("text");
+        comment.setItem(savedFirst);
+        comment.setAuthor(savedAuthor);
+        comment.setCreated(LocalDateTime.now());
+        commentRepository.save(comment);
+
+        List<ItemDto> result = itemService.getItemsByOwner(savedOwner.getId());
+
+        assertEquals(2, result.size());
+        ItemDto firstDto = result.stream().filter(i -> i.getId().equals(savedFirst.getId())).findFirst().orElseThrow();
+        ItemDto secondDto = result.stream().filter(i -> i.getId().equals(savedSecond.getId())).findFirst().orElseThrow();
+        assertEquals(1, firstDto.getComments().size());
+        assertEquals("author", firstDto.getComments().get(0).getAuthorName());
+        assertTrue(secondDto.getComments().isEmpty());
+    }
+
     @Test
     void getItemsBySearchQuery() {
         User user = new User();
@@ -247,6 +311,43 @@ public class ItemServiceImplTest {
         assertFalse(result.isEmpty());
     }
 
+    @Test
+    void getItemsBySearchQueryRanksNameMatchesFirstAndPages() {
+        User user = new User();
+        user.setName("name");
+        user.setEmail("search@a.com");
+        User savedUser = userRepository.save(user);
+
+        Item byDescription = new Item();
+        byDescription.setName("Дрель");
+        byDescription.setDescription("Аккумуляторная, как отвертка");
+        byDescription.setAvailable(true);
+        byDescription.setOwner(savedUser);
+        itemRepository.save(byDescription);
+
+        Item byName = new Item();
+        byName.setName("Отвертка");
+        byName.setDescription("Крестовая");
+        byName.setAvailable(true);
+        byName.setOwner(savedUser);
+        itemRepository.save(byName);
+
+        Item unavailable = new Item();
+        unavailable.setName("Отвертка сломанная");
+        unavailable.setDescription("desc");
+        unavailable.setAvailable(false);
+        unavailable.setOwner(savedUser);
+        itemRepository.save(unavailable);
+
+        List<ItemDto> result = itemService.getItemsBySearchQuery("оТВЕРТКА", 0, 10);
+        assertEquals(List.of(byName.getId(), byDescription.getId()), result.stream().map(ItemDto::getId).toList());
+
+        List<ItemDto> secondPage = itemService.getItemsBySearchQuery("отвертка", 1, 1);
+        assertEquals(List.of(byDescription.getId()), secondPage.stream().map(ItemDto::getId).toList());
+
+        assertTrue(itemService.getItemsBySearchQuery(" ", 0, 10).isEmpty());
+    }
+
     @Test
     void deleteItemsByOwnerId() {
         User user = new User();
@@ -266,7 +367,7 @@ public class ItemServiceImplTest {
         List<Item> items = itemRepository
                 .findAll()
                 .stream()
-                .filter(i -> i.getOwner().getEmail().equals("ab1@ab1.com"))
+                .filter(i -> i.getOwner().getId().equals(savedUser.getId()))
                 .toList();
 
         assertTrue(items.isEmpty());
@@ -290,6 +391,54 @@ public class ItemServiceImplTest {
         assertNotNull(result);
     }
 
+    @Test
+    void getItemByIdLoadsCardOnceForConcurrentMisses() throws Exception {
+        User savedUser = userRepository.save(new User(null, "owner", "card-owner@a.com"));
+        Item savedItem = itemRepository.save(new Item(null, "card", "desc", true, savedUser, null));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<ItemDto>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                ready.await();
+                return itemService.getItemById(savedItem.getId());
+            }));
+        }
+        ready.countDown();
+        for (Future<ItemDto> result : results) {
+            assertEquals("card", result.get(30, TimeUnit.SECONDS).getName());
+        }
+        executor.shutdown();
+
+        // Вещь с владельцем и отзывы — одна загрузка на всех
+        assertTrue(statistics.getPrepareStatementCount() <= 2);
+    }
+
+    @Test
+    void getItemByIdReflectsUpdateAndNewComment() {
+        User owner = userRepository.save(new User(null, "owner", "card-update-owner@a.com"));
+        User booker = userRepository.save(new User(null, "booker", "card-update-booker@a.com"));
+        Item savedItem = itemRepository.save(new Item(null, "before", "desc", true, owner, null));
+        bookingRepository.save(new Booking(null, LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2),
+                Status.APPROVED, booker, savedItem));
+        assertEquals("before", itemService.getItemById(savedItem.getId()).getName());
+
+        ItemDto patch = new ItemDto();
+        patch.setName("after");
+        itemService.update(patch, owner.getId(), savedItem.getId());
+        assertEquals("after", itemService.getItemById(savedItem.getId()).getName());
+
+        CommentDto comment = new CommentDto();
+        comment.setText("отлично");
+        itemService.addComment(comment, savedItem.getId(), booker.getId());
+        assertEquals(List.of("отлично"), itemService.getItemById(savedItem.getId()).getComments().stream()
+                .map(CommentDto::getText).toList());
+    }
+
     @Test
     void addComment() {
         User user = new User();
@@ -360,4 +509,59 @@ public class ItemServiceImplTest {
         assertEquals("Пользователь не найден", exp.getMessage());
     }
 
+    @Test
+    void getAvailabilityMergesBusyPeriodsAndReturnsFreeSlots() {
+        User owner = userRepository.save(new User(null, "owner", "calendar-owner@a.com"));
+        User booker = userRepository.save(new User(null, "booker", "calendar-booker@a.com"));
+        Item item = itemRepository.save(new Item(null, "name", "desc", true, owner, null));
+        LocalDateTime day = LocalDateTime.parse("2030-01-01T10:00:00");
+
+        bookingRepository.save(new Booking(null, day.plusDays(1), day.plusDays(3), Status.WAITING, booker, item));
+        bookingRepository.save(new Booking(null, day.plusDays(2), day.plusDays(4), Status.APPROVED, booker, item));
+        bookingRepository.save(new Booking(null, day.plusDays(6), day.plusDays(7), Status.REJECTED, booker, item));
+        bookingRepository.save(new Booking(null, day.plusDays(8), day.plusDays(12), Status.APPROVED, booker, item));
+
+        ItemAvailabilityDto availability = itemService.getAvailability(item.getId(), day, day.plusDays(10));
+
+        assertEquals(List.of(new TimeSlotDto(day.plusDays(1), day.plusDays(4)),
+                new TimeSlotDto(day.plusDays(8), day.plusDays(10))), availability.getBusy());
+        assertEquals(List.of(new TimeSlotDto(day, day.plusDays(1)),
+                new TimeSlotDto(day.plusDays(4), day.plusDays(8))), availability.getFree());
+        assertThrows(ValidationException.class,
+                () -> itemService.getAvailability(item.getId(), day.plusDays(1), day));
+        assertThrows(NotFoundException.class,
+                () -> itemService.getAvailability(Long.MAX_VALUE, day, day.plusDays(1)));
+    }
+
+    @Test
+    void getItemByIdShowsUpdatedOwner() {
+        User owner = userRepository.save(new User(null, "owner", "card-owner@a.com"));
+        Item item = itemRepository.save(new Item(null, "name", "desc", true, owner, null));
+        assertEquals("owner", itemService.getItemById(item.getId()).getOwner().getName());
+
+        UserDto update = new UserDto();
+        update.setName("renamed");
+        update.setEmail("card-owner-renamed@a.com");
+        userService.updateUser(update, owner.getId());
+
+        ItemDto card = itemService.getItemById(item.getId());
+        assertEquals("renamed", card.getOwner().getName());
+        assertEquals("card-owner-renamed@a.com", card.getOwner().getEmail());
+    }
+
+    @Test
+    void getAvailabilityReadsPastPeriodsFromDatabase() {
+        User owner = userRepository.save(new User(null, "owner", "past-calendar-owner@a.com"));
+        User booker = userRepository.save(new User(null, "booker", "past-calendar-booker@a.com"));
+        Item item = itemRepository.save(new Item(null, "name", "desc", true, owner, null));
+        LocalDateTime day = LocalDateTime.now().minusDays(30).truncatedTo(ChronoUnit.SECONDS);
+
+        bookingRepository.save(new Booking(null, day.plusDays(1), day.plusDays(2), Status.APPROVED, booker, item));
+        // Кэшированная занятость начинается с текущего момента и прошедшего периода не содержит
+        itemService.getAvailability(item.getId(), null, null);
+
+        ItemAvailabilityDto availability = itemService.getAvailability(item.getId(), day, day.plusDays(3));
+
+        assertEquals(List.of(new TimeSlotDto(day.plusDays(1), day.plusDays(2))), availability.getBusy());
+    }
 }
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.PostgresItemSearchEngine;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Поиск на настоящем Postgres со схемой из миграций Flyway. Без Docker тест пропускается.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.defer-datasource-initialization=false",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "shareit.search.engine=postgres"
+})
+class PostgresItemSearchEngineTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private ItemSearchEngine searchEngine;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Item drill;
+    private Item screwdriver;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        User owner = userRepository.save(User.builder().name("owner").email("owner@search.com").build());
+
+        drill = itemRepository.save(Item.builder()
+                .name("Дрель").description("Аккумуляторная дрель, в комплекте отвертка")
+                .available(true).owner(owner).build());
+        screwdriver = itemRepository.save(Item.builder()
+                .name("Отвертка").description("Крестовая")
+                .available(true).owner(owner).build());
+        itemRepository.save(Item.builder()
+                .name("Отвертка сломанная").description("Не работает")
+                .available(false).owner(owner).build());
+    }
+
+    @Test
+    void usesPostgresEngine() {
+        assertThat(searchEngine).isInstanceOf(PostgresItemSearchEngine.class);
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        List<Item> result = searchEngine.search("отвертка", 0, 10);
+
+        assertThat(result).extracting(Item::getId).containsExactly(screwdriver.getId(), drill.getId());
+    }
+
+    @Test
+    void findsSubstringsAndTypos() {
+        assertThat(searchEngine.search("вертк", 0, 10)).extracting(Item::getId).contains(screwdriver.getId());
+        assertThat(searchEngine.search("отвердка", 0, 10)).extracting(Item::getId).contains(screwdriver.getId());
+    }
+
+    @Test
+    void pages() {
+        assertThat(searchEngine.search("отвертка", 1, 1)).extracting(Item::getId).containsExactly(drill.getId());
+    }
+}
@@ -13,12 +13,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.practicum.shareit.user.controller.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
@@ -89,7 +91,6 @@ public class UserControllerTest {
 
     @Test
     void getUsers() throws Exception {
-        when(userService.getUsers()).thenReturn(Collections.emptyList());
         mvc.perform(get("/users")
                         .header("X-Sharer-User-Id", "1")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -99,6 +100,37 @@ public class UserControllerTest {
                 .andExpect(content().json("[]"));
     }
 
+    @Test
+    void getUsersStreamsEveryExportedUser() throws Exception {
+        UserDto second = new UserDto(2L, "Second", "second@test.com");
+        doAnswer(invocation -> {
+            Consumer<UserDto> consumer = invocation.getArgument(0);
+            consumer.accept(userDto);
+            consumer.accept(second);
+            return null;
+        }).when(userService).exportUsers(any());
+
+        mvc.perform(get("/users")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].email", is(userDto.getEmail())))
+                .andExpect(jsonPath("$[1].id", is(2L), Long.class));
+    }
+
+    @Test
+    void getUsersPage() throws Exception {
+        when(userService.getUsers(5L, 1)).thenReturn(new UserPageDto(List.of(userDto), 1L));
+
+        mvc.perform(get("/users")
+                        .param("cursor", "5")
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(UserController.NEXT_CURSOR, "1"))
+                .andExpect(jsonPath("$[0].id", is(userDto.getId()), Long.class));
+    }
+
     @Test
     void getUserById() throws Exception {
         when(userService.getUserById(anyLong())).thenReturn(userDto);
@@ -1,17 +1,25 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.CustomUserNotFoundException;
 import ru.practicum.shareit.exception.UserAlreadyExistsException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserPageDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.service.UserServiceImpl;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -25,6 +33,12 @@ class UserServiceImplTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private UserMapper userMapper;
 
     @Test
@@ -54,6 +68,20 @@ class UserServiceImplTest {
         assertEquals("email=a1@a1.com уже используется", exp.getMessage());
     }
 
+    @Test
+    void createUserEmailIgnoresCase() {
+        UserDto userDto = new UserDto();
+        userDto.setName("newName");
+        userDto.setEmail("Case@Mail.com");
+        userService.createUser(userDto);
+
+        UserDto userDtoNew = new UserDto();
+        userDtoNew.setName("newNameUser");
+        userDtoNew.setEmail("case@mail.COM");
+
+        assertThrows(UserAlreadyExistsException.class, () -> userService.createUser(userDtoNew));
+    }
+
     @Test
     void createUserInvalidEmailNull() {
         UserDto userDto = new UserDto();
@@ -107,10 +135,89 @@ class UserServiceImplTest {
         assertEquals("Такой email у пользователя уже существует", exp.getMessage());
     }
 
+    @Test
+    void updateUserChangesOnlyEmailCase() {
+        User savedUser = userRepository.save(new User(null, "name", "Case-Update@Mail.com"));
+
+        UserDto userDto = new UserDto();
+        userDto.setEmail("case-update@mail.com");
+
+        assertEquals("case-update@mail.com", userService.updateUser(userDto, savedUser.getId()).getEmail());
+    }
+
+    @Test
+    void updateUserEmailOfAnotherUserIgnoresCase() {
+        userRepository.save(new User(null, "first", "Taken-Update@Mail.com"));
+        User savedUser = userRepository.save(new User(null, "second", "free-update@mail.com"));
+
+        UserDto userDto = new UserDto();
+        userDto.setEmail("taken-update@mail.com");
+
+        assertThrows(UserAlreadyExistsException.class, () -> userService.updateUser(userDto, savedUser.getId()));
+    }
+
     @Test
     void getUsers() {
-        Collection<UserDto> users = userService.getUsers();
-        assertFalse(users.isEmpty());
+        User first = userRepository.save(new User(null, "first", "page-first@a.com"));
+        User second = userRepository.save(new User(null, "second", "page-second@a.com"));
+        User third = userRepository.save(new User(null, "third", "page-third@a.com"));
+
+        UserPageDto page = userService.getUsers(first.getId() - 1, 2);
+        assertEquals(List.of(first.getId(), second.getId()), page.getUsers().stream().map(UserDto::getId).toList());
+        assertEquals(second.getId(), page.getNextCursor());
+
+        UserPageDto next = userService.getUsers(page.getNextCursor(), 100);
+        assertEquals(third.getId(), next.getUsers().get(0).getId());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void getUsersRejectsEmptyPage() {
+        assertThrows(ValidationException.class, () -> userService.getUsers(null, 0));
+    }
+
+    @Test
+    void exportUsers() {
+        User saved = userRepository.save(new User(null, "exported", "export@a.com"));
+        List<UserDto> exported = new ArrayList<>();
+
+        userService.exportUsers(exported::add);
+
+        assertEquals(userRepository.count(), exported.size());
+        assertTrue(exported.stream().anyMatch(user -> user.getId().equals(saved.getId())));
+        for (int i = 1; i < exported.size(); i++) {
+            assertTrue(exported.get(i - 1).getId() < exported.get(i).getId());
+        }
+    }
+
+    @Test
+    void getUserByIdIsCachedUntilUpdateOrRemove() {
+        User savedUser = userRepository.save(new User(null, "cached", "cached@a.com"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        userService.getUserById(savedUser.getId());
+        statistics.clear();
+        userService.getUserById(savedUser.getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        userService.updateUser(new UserDto(null, "renamed", null), savedUser.getId());
+        assertEquals("renamed", userService.getUserById(savedUser.getId()).getName());
+
+        userService.removeUser(savedUser.getId());
+        assertThrows(CustomUserNotFoundException.class, () -> userService.getUserById(savedUser.getId()));
+    }
+
+    @Test
+    void usersCacheIsExposedAsMetrics() {
+        User savedUser = userRepository.save(new User(null, "metered", "metered@a.com"));
+        userService.getUserById(savedUser.getId());
+        userService.getUserById(savedUser.getId());
+
+        assertTrue(meterRegistry.get("cache.gets")
+                .tag("cache", UserServiceImpl.USERS_CACHE)
+                .tag("result", "hit")
+                .functionCounter()
+                .count() >= 1);
     }
 
     @Test